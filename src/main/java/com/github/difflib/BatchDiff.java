@@ -0,0 +1,155 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib;
+
+import com.github.difflib.algorithm.DiffAlgorithm;
+import com.github.difflib.algorithm.DiffException;
+import com.github.difflib.algorithm.DifferentiationFailedException;
+import com.github.difflib.algorithm.myers.MyersDiff;
+import com.github.difflib.patch.Patch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Diffs many pairs of sequences on an executor, e.g. a fork join pool or one thread per task. The pairs are submitted
+ * largest first (original and revised size together), so that a big pair does not start last and delay the end of the
+ * whole batch. All pairs share one algorithm instance, which therefore has to be thread safe like the algorithms of
+ * this library. Each pair is diffed like {@link DiffUtils#diff(List, List, DiffAlgorithm, int)}.
+ *
+ * @param <T> The type of the compared elements in the 'lines'.
+ */
+public final class BatchDiff<T> {
+
+    private final DiffAlgorithm<T> algorithm;
+    private final Executor executor;
+    private final int linesBeforeAfter;
+
+    /**
+     * Uses {@link MyersDiff} and no surrounding lines.
+     *
+     * @param executor runs the diffs. Must not be {@code null}.
+     */
+    public BatchDiff(Executor executor) {
+        this(new MyersDiff<>(), executor, 0);
+    }
+
+    /**
+     * @param algorithm        the algorithm shared by all diffs. Must not be {@code null}.
+     * @param executor         runs the diffs. Must not be {@code null}.
+     * @param linesBeforeAfter amount of lines for before and after chunk content
+     */
+    public BatchDiff(DiffAlgorithm<T> algorithm, Executor executor, int linesBeforeAfter) {
+        Objects.requireNonNull(algorithm, "algorithm must not be null");
+        Objects.requireNonNull(executor, "executor must not be null");
+        this.algorithm = algorithm;
+        this.executor = executor;
+        this.linesBeforeAfter = linesBeforeAfter;
+    }
+
+    /**
+     * Submits the diffs of all pairs and returns at once. The futures complete as soon as their diff is done, e.g.
+     * {@code CompletableFuture.anyOf} or {@code thenAccept} give the patches in order of completion. A failed diff or a
+     * rejected task completes its future exceptionally.
+     *
+     * @param originals the original sequences. Must not be {@code null}.
+     * @param revisions the revised sequences, one per original. Must not be {@code null}.
+     * @return the futures of the patches, in the order of the pairs
+     */
+    public List<CompletableFuture<Patch<T>>> submit(List<? extends List<T>> originals,
+                                                    List<? extends List<T>> revisions) {
+        Objects.requireNonNull(originals, "originals must not be null");
+        Objects.requireNonNull(revisions, "revisions must not be null");
+        if (originals.size() != revisions.size()) {
+            throw new IllegalArgumentException("got " + originals.size() + " originals but " + revisions.size()
+                    + " revisions");
+        }
+
+        final int count = originals.size();
+        final List<CompletableFuture<Patch<T>>> futures = new ArrayList<>(count);
+        final Integer[] order = new Integer[count];
+        final long[] sizes = new long[count];
+        for (int i = 0; i < count; i++) {
+            futures.add(new CompletableFuture<>());
+            order[i] = i;
+            sizes[i] = (long) originals.get(i).size() + revisions.get(i).size();
+        }
+        Arrays.sort(order, Comparator.comparingLong((Integer i) -> sizes[i]).reversed());
+
+        for (int i : order) {
+            final List<T> original = originals.get(i);
+            final List<T> revised = revisions.get(i);
+            final CompletableFuture<Patch<T>> future = futures.get(i);
+            try {
+                executor.execute(() -> {
+                    try {
+                        future.complete(DiffUtils.diff(original, revised, algorithm, linesBeforeAfter));
+                    } catch (DiffException | RuntimeException e) {
+                        future.completeExceptionally(e);
+                    }
+                });
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }
+        return futures;
+    }
+
+    /**
+     * Diffs all pairs and waits for the results.
+     *
+     * @param originals the original sequences. Must not be {@code null}.
+     * @param revisions the revised sequences, one per original. Must not be {@code null}.
+     * @return the patches, in the order of the pairs
+     * @throws DiffException if a diff failed or the waiting thread was interrupted
+     */
+    public List<Patch<T>> diff(List<? extends List<T>> originals, List<? extends List<T>> revisions)
+            throws DiffException {
+        final List<CompletableFuture<Patch<T>>> futures = submit(originals, revisions);
+        final List<Patch<T>> patches = new ArrayList<>(futures.size());
+        for (CompletableFuture<Patch<T>> future : futures) {
+            patches.add(join(future));
+        }
+        return patches;
+    }
+
+    private static <T> Patch<T> join(CompletableFuture<Patch<T>> future) throws DiffException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DifferentiationFailedException("diff interrupted");
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof DiffException) {
+                throw (DiffException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
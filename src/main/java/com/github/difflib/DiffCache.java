@@ -0,0 +1,239 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib;
+
+import com.github.difflib.algorithm.Change;
+import com.github.difflib.algorithm.DiffAlgorithm;
+import com.github.difflib.algorithm.DiffException;
+import com.github.difflib.patch.Patch;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Cache of computed changes, keyed by the SHA-256 digests of both inputs and a descriptor of the algorithm. The
+ * descriptor names the algorithm and all of its options, e.g. {@code "myers"} or {@code "myers/ignore-case"}, and is
+ * compared by {@code equals}. Algorithms with equal descriptors must compute the same changes, so a descriptor may be
+ * shared by separately created instances; differently configured algorithms need different descriptors. Only the
+ * changes are kept; the patch with its lines is created from them on every call, which is linear in the size of the
+ * changes.
+ * <p>
+ * The cache is bounded by the estimated memory of its entries and evicts the least recently used ones. It is thread
+ * safe; the diff of a missing entry is computed outside of the lock, so concurrent requests for the same entry may
+ * compute it more than once.
+ *
+ * @param <T> The type of the compared elements in the 'lines'.
+ */
+public final class DiffCache<T> {
+
+    /**
+     * Estimated size of an entry without its changes: key, digests, map entry and list.
+     */
+    private static final int ENTRY_BYTES = 200;
+    /**
+     * Estimated size of one change including its reference.
+     */
+    private static final int CHANGE_BYTES = 40;
+
+    private final long maxBytes;
+    private final Function<? super T, ? extends CharSequence> content;
+    private final LinkedHashMap<Key, List<Change>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    /**
+     * @param maxBytes the maximum estimated memory of all entries
+     * @param content  the content of an element which is digested, equal elements must have equal content. Must not
+     *                 be {@code null}.
+     */
+    public DiffCache(long maxBytes, Function<? super T, ? extends CharSequence> content) {
+        Objects.requireNonNull(content, "content must not be null");
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes must not be negative");
+        }
+        this.maxBytes = maxBytes;
+        this.content = content;
+    }
+
+    /**
+     * Creates a cache of string sequences which digests the strings themselves.
+     *
+     * @param maxBytes the maximum estimated memory of all entries
+     */
+    public static DiffCache<String> ofStrings(long maxBytes) {
+        return new DiffCache<>(maxBytes, Function.identity());
+    }
+
+    /**
+     * Returns the cached changes of both sequences or computes them like
+     * {@link DiffUtils#diff(List, List, DiffAlgorithm, int)} does.
+     *
+     * @param original   The original text. Must not be {@code null}.
+     * @param revised    The revised text. Must not be {@code null}.
+     * @param algorithm  The diff algorithm. Must not be {@code null}.
+     * @param descriptor The descriptor of the algorithm and its options, see above. Must not be {@code null}.
+     * @return the changes in ascending order, unmodifiable
+     */
+    public List<Change> changes(List<T> original, List<T> revised, DiffAlgorithm<T> algorithm, Object descriptor)
+            throws DiffException {
+        Objects.requireNonNull(original, "original must not be null");
+        Objects.requireNonNull(revised, "revised must not be null");
+        Objects.requireNonNull(algorithm, "algorithm must not be null");
+        Objects.requireNonNull(descriptor, "descriptor must not be null");
+
+        final Key key = new Key(descriptor, digest(original), digest(revised));
+        synchronized (entries) {
+            final List<Change> cached = entries.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        final List<Change> changes = Collections.unmodifiableList(Arrays.asList(
+                DiffUtils.diffTrimmed(original, revised, algorithm).toArray(new Change[0])));
+        final long size = weight(changes);
+        if (size <= maxBytes) {
+            synchronized (entries) {
+                final List<Change> previous = entries.put(key, changes);
+                bytes += size - (previous == null ? 0 : weight(previous));
+                final Iterator<List<Change>> eldest = entries.values().iterator();
+                while (bytes > maxBytes) {
+                    bytes -= weight(eldest.next());
+                    eldest.remove();
+                }
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Creates the patch of both sequences from the cached changes.
+     *
+     * @param original         The original text. Must not be {@code null}.
+     * @param revised          The revised text. Must not be {@code null}.
+     * @param algorithm        The diff algorithm. Must not be {@code null}.
+     * @param descriptor       The descriptor of the algorithm and its options. Must not be {@code null}.
+     * @param linesBeforeAfter - Amount of lines for before and after chunk content
+     * @return The patch describing the difference between the original and revised sequences. Never {@code null}.
+     */
+    public Patch<T> diff(List<T> original, List<T> revised, DiffAlgorithm<T> algorithm, Object descriptor,
+                         int linesBeforeAfter) throws DiffException {
+        return Patch.generate(original, revised, changes(original, revised, algorithm, descriptor), linesBeforeAfter);
+    }
+
+    /**
+     * @return the number of cached entries
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return the estimated memory of all entries in bytes
+     */
+    public long estimatedBytes() {
+        synchronized (entries) {
+            return bytes;
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            bytes = 0;
+        }
+    }
+
+    private static long weight(List<Change> changes) {
+        return ENTRY_BYTES + (long) CHANGE_BYTES * changes.size();
+    }
+
+    /**
+     * Digests the sequence. Each element contributes its length and its UTF-16 code units, so the boundaries between
+     * elements are part of the digest.
+     */
+    private byte[] digest(List<T> sequence) {
+        final MessageDigest digest = sha256();
+        byte[] buffer = new byte[256];
+        for (T element : sequence) {
+            // null is written as length -1, it must not collide with the text "null"
+            final CharSequence text = element == null ? "" : content.apply(element);
+            final int length = text.length();
+            if (buffer.length < 4 + 2 * length) {
+                buffer = new byte[Math.max(2 * buffer.length, 4 + 2 * length)];
+            }
+            final int header = element == null ? -1 : length;
+            buffer[0] = (byte) (header >>> 24);
+            buffer[1] = (byte) (header >>> 16);
+            buffer[2] = (byte) (header >>> 8);
+            buffer[3] = (byte) header;
+            for (int i = 0; i < length; i++) {
+                final char c = text.charAt(i);
+                buffer[4 + 2 * i] = (byte) (c >>> 8);
+                buffer[5 + 2 * i] = (byte) c;
+            }
+            digest.update(buffer, 0, 4 + 2 * length);
+        }
+        return digest.digest();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform has to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Key {
+
+        private final Object descriptor;
+        private final byte[] original;
+        private final byte[] revised;
+        private final int hash;
+
+        Key(Object descriptor, byte[] original, byte[] revised) {
+            this.descriptor = descriptor;
+            this.original = original;
+            this.revised = revised;
+            this.hash = 31 * (31 * descriptor.hashCode() + Arrays.hashCode(original))
+                    + Arrays.hashCode(revised);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return descriptor.equals(other.descriptor) && Arrays.equals(original, other.original)
+                    && Arrays.equals(revised, other.revised);
+        }
+    }
+}
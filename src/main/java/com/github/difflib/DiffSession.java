@@ -0,0 +1,428 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib;
+
+import com.github.difflib.algorithm.Change;
+import com.github.difflib.algorithm.Changes;
+import com.github.difflib.algorithm.DiffAlgorithm;
+import com.github.difflib.algorithm.DiffException;
+import com.github.difflib.algorithm.SymbolTable;
+import com.github.difflib.algorithm.myers.MyersDiff;
+import com.github.difflib.patch.Patch;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Diff of two sequences which are edited repeatedly, e.g. two documents in an editor. The session keeps both sequences,
+ * their interned ids and the current changes. After an edit only the region around it is diffed again: the changes
+ * touching the edit are dropped, the region between the equal ranges around them is diffed with the algorithm and the
+ * changes after the edit are kept.
+ * <p>
+ * Both sequences with their ids and the changes are stored in gap buffers, with the gap at the last edit. The changes
+ * behind the gap are stored relative to the ends of both sequences, so an edit changing the length of a sequence does
+ * not have to shift them. An edit therefore costs the size of the edit, of the changes it touches and of the distance
+ * to the previous edit, which is small for typing, plus a binary search over the changes. Edits far apart from each
+ * other cost the distance between them. {@link #getChanges()} and {@link #getPatch(int)} copy all changes.
+ * <p>
+ * The alignment outside the region is kept, so after many edits the changes are valid but not necessarily minimal;
+ * {@link #rediff()} computes them from scratch. Ids of removed elements are not released. A session is not thread safe.
+ *
+ * @param <T> The type of the compared elements in the 'lines'.
+ */
+public final class DiffSession<T> {
+
+    private static final int ORIGINAL = 0;
+    private static final int REVISED = 1;
+
+    private final DiffAlgorithm<Integer> algorithm;
+    private final SymbolTable<T> table;
+    private final List<Sequence<T>> sequences = new ArrayList<>(2);
+    private final ChangeBuffer changes = new ChangeBuffer();
+
+    /**
+     * Uses {@link MyersDiff}.
+     */
+    public DiffSession(List<T> original, List<T> revised) throws DiffException {
+        this(original, revised, new MyersDiff<>());
+    }
+
+    /**
+     * Diffs both sequences completely.
+     *
+     * @param original  the original sequence, which is copied. Must not be {@code null}.
+     * @param revised   the revised sequence, which is copied. Must not be {@code null}.
+     * @param algorithm the algorithm, working on the ids of the elements. Must not be {@code null}.
+     */
+    public DiffSession(List<T> original, List<T> revised, DiffAlgorithm<Integer> algorithm) throws DiffException {
+        Objects.requireNonNull(original, "original must not be null");
+        Objects.requireNonNull(revised, "revised must not be null");
+        Objects.requireNonNull(algorithm, "algorithm must not be null");
+        this.algorithm = algorithm;
+        this.table = new SymbolTable<>(original.size() + revised.size());
+        sequences.add(new Sequence<>(original, table.intern(original)));
+        sequences.add(new Sequence<>(revised, table.intern(revised)));
+        rediff();
+    }
+
+    /**
+     * Replaces the elements {@code from} (inclusive) to {@code to} (exclusive) of the original sequence and updates the
+     * changes.
+     *
+     * @param replacement the new elements. Must not be {@code null}.
+     * @throws IndexOutOfBoundsException if the range is not within the original sequence
+     */
+    public void replaceOriginal(int from, int to, List<? extends T> replacement) throws DiffException {
+        replace(ORIGINAL, from, to, replacement);
+    }
+
+    /**
+     * Replaces the elements {@code from} (inclusive) to {@code to} (exclusive) of the revised sequence and updates the
+     * changes.
+     *
+     * @param replacement the new elements. Must not be {@code null}.
+     * @throws IndexOutOfBoundsException if the range is not within the revised sequence
+     */
+    public void replaceRevised(int from, int to, List<? extends T> replacement) throws DiffException {
+        replace(REVISED, from, to, replacement);
+    }
+
+    /**
+     * Diffs both sequences completely, which gives the result of the algorithm for the current sequences.
+     */
+    public void rediff() throws DiffException {
+        changes.clear();
+        changes.insert(diffRegion(0, length(ORIGINAL), 0, length(REVISED)));
+    }
+
+    public List<T> getOriginal() {
+        return Collections.unmodifiableList(sequences.get(ORIGINAL));
+    }
+
+    public List<T> getRevised() {
+        return Collections.unmodifiableList(sequences.get(REVISED));
+    }
+
+    /**
+     * @return a copy of the current changes in ascending order
+     */
+    public List<Change> getChanges() {
+        return Collections.unmodifiableList(changes.toList());
+    }
+
+    /**
+     * Creates the patch of the current changes. The lines of the deltas are copied from the sequences.
+     */
+    public Patch<T> getPatch(int surroundingLines) {
+        return Patch.generate(sequences.get(ORIGINAL), sequences.get(REVISED), changes.toList(), surroundingLines);
+    }
+
+    private int length(int side) {
+        return sequences.get(side).size();
+    }
+
+    private void replace(int side, int from, int to, List<? extends T> replacement) throws DiffException {
+        Objects.requireNonNull(replacement, "replacement must not be null");
+        final int oldSize = length(side);
+        if (from < 0 || from > to || to > oldSize) {
+            throw new IndexOutOfBoundsException("from: " + from + ", to: " + to + ", size: " + oldSize);
+        }
+        final int shift = replacement.size() - (to - from);
+
+        // the changes touching the edit, first (inclusive) to last (exclusive)
+        final int first = firstEndingAtOrAfter(side, from);
+        final int last = firstStartingAfter(side, to);
+        final int other = 1 - side;
+        final int start = first < last ? Math.min(from, start(changes.get(first), side)) : from;
+        final int end = first < last ? Math.max(to, end(changes.get(last - 1), side)) : to;
+        // outside of the changes both sides advance together
+        final int otherStart = first == 0 ? start
+                : end(changes.get(first - 1), other) + start - end(changes.get(first - 1), side);
+        final int otherEnd = last == changes.size() ? length(other) - (oldSize - end)
+                : start(changes.get(last), other) - (start(changes.get(last), side) - end);
+
+        // the changes behind the gap are relative to the ends, so they stay valid while the sequence changes
+        changes.remove(first, last);
+        final List<T> elements = new ArrayList<>(replacement);
+        sequences.get(side).replace(from, to, elements, table.intern(elements));
+        changes.insert(side == ORIGINAL
+                ? diffRegion(start, end + shift, otherStart, otherEnd)
+                : diffRegion(otherStart, otherEnd, start, end + shift));
+    }
+
+    /**
+     * Diffs the given region of both sequences.
+     *
+     * @return the changes in ascending order
+     */
+    private List<Change> diffRegion(int start1, int end1, int start2, int end2) throws DiffException {
+        final int[] orig = sequences.get(ORIGINAL).ids(start1, end1);
+        final int[] rev = sequences.get(REVISED).ids(start2, end2);
+        final List<Change> region = new ArrayList<>(DiffUtils.diffTrimmed(orig, rev, algorithm));
+        region.sort(Comparator.<Change>comparingInt(c -> c.startOriginal).thenComparingInt(c -> c.startRevised));
+        final List<Change> result = new ArrayList<>(region.size());
+        Changes.addShifted(result, region, start1, start2);
+        return result;
+    }
+
+    /**
+     * @return the index of the first change ending at or after the position, the ends are ascending
+     */
+    private int firstEndingAtOrAfter(int side, int position) {
+        int low = 0;
+        int high = changes.size();
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (end(changes.get(mid), side) < position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return the index of the first change starting after the position, the starts are ascending
+     */
+    private int firstStartingAfter(int side, int position) {
+        int low = 0;
+        int high = changes.size();
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (start(changes.get(mid), side) <= position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int start(Change change, int side) {
+        return side == ORIGINAL ? change.startOriginal : change.startRevised;
+    }
+
+    private static int end(Change change, int side) {
+        return side == ORIGINAL ? change.endOriginal : change.endRevised;
+    }
+
+    /**
+     * The elements of one sequence and their ids in a gap buffer. Replacing a range moves the gap there, which costs
+     * the distance to the previous edit instead of the size of the sequence.
+     */
+    private static final class Sequence<T> extends AbstractList<T> implements RandomAccess {
+
+        private Object[] elements;
+        private int[] ids;
+        private int gapStart;
+        private int gapEnd;
+
+        Sequence(List<T> elements, int[] ids) {
+            final int capacity = ids.length + Math.max(16, ids.length >>> 4);
+            this.elements = Arrays.copyOf(elements.toArray(), capacity);
+            this.ids = Arrays.copyOf(ids, capacity);
+            this.gapStart = ids.length;
+            this.gapEnd = capacity;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("index: " + index + ", size: " + size());
+            }
+            return (T) elements[index < gapStart ? index : index + gapEnd - gapStart];
+        }
+
+        @Override
+        public int size() {
+            return ids.length - (gapEnd - gapStart);
+        }
+
+        /**
+         * @return a copy of the ids from (inclusive) to (exclusive)
+         */
+        int[] ids(int from, int to) {
+            final int[] result = new int[to - from];
+            final int before = Math.max(0, Math.min(to, gapStart) - from);
+            System.arraycopy(ids, from, result, 0, before);
+            System.arraycopy(ids, from + before + gapEnd - gapStart, result, before, result.length - before);
+            return result;
+        }
+
+        void replace(int from, int to, List<? extends T> added, int[] addedIds) {
+            moveGap(to);
+            gapStart = from;
+            if (gapEnd - gapStart < added.size()) {
+                grow(added.size());
+            }
+            for (int i = 0; i < addedIds.length; i++) {
+                elements[gapStart] = added.get(i);
+                ids[gapStart++] = addedIds[i];
+            }
+            // removed elements are no longer referenced
+            Arrays.fill(elements, gapStart, gapEnd, null);
+        }
+
+        private void moveGap(int position) {
+            final int gap = gapEnd - gapStart;
+            if (position < gapStart) {
+                System.arraycopy(elements, position, elements, position + gap, gapStart - position);
+                System.arraycopy(ids, position, ids, position + gap, gapStart - position);
+            } else if (position > gapStart) {
+                System.arraycopy(elements, gapEnd, elements, gapStart, position - gapStart);
+                System.arraycopy(ids, gapEnd, ids, gapStart, position - gapStart);
+            }
+            gapEnd = position + gap;
+            gapStart = position;
+        }
+
+        private void grow(int needed) {
+            final int tail = ids.length - gapEnd;
+            final int capacity = Math.max(ids.length - (gapEnd - gapStart) + needed, 2 * ids.length);
+            elements = Arrays.copyOf(elements, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            System.arraycopy(elements, gapEnd, elements, capacity - tail, tail);
+            System.arraycopy(ids, gapEnd, ids, capacity - tail, tail);
+            gapEnd = capacity - tail;
+        }
+    }
+
+    /**
+     * The changes in a gap buffer. The changes before the gap hold their positions, the changes behind the gap hold
+     * their positions minus the current sizes of the sequences, which do not change by an edit in front of them.
+     */
+    private final class ChangeBuffer {
+
+        private Change[] changes = new Change[16];
+        private int gapStart;
+        private int gapEnd = changes.length;
+
+        int size() {
+            return changes.length - (gapEnd - gapStart);
+        }
+
+        Change get(int index) {
+            if (index < gapStart) {
+                return changes[index];
+            }
+            return fromEnd(changes[index + gapEnd - gapStart]);
+        }
+
+        void clear() {
+            Arrays.fill(changes, null);
+            gapStart = 0;
+            gapEnd = changes.length;
+        }
+
+        /**
+         * Removes the changes from (inclusive) to (exclusive) and places the gap there.
+         */
+        void remove(int from, int to) {
+            moveGap(to);
+            Arrays.fill(changes, from, gapStart, null);
+            gapStart = from;
+        }
+
+        /**
+         * Inserts changes at the gap, joining them with their neighbours if they touch.
+         */
+        void insert(List<Change> added) {
+            if (gapEnd - gapStart < added.size()) {
+                grow(added.size());
+            }
+            for (Change change : added) {
+                append(change);
+            }
+            if (gapStart > 0 && gapEnd < changes.length) {
+                final Change next = fromEnd(changes[gapEnd]);
+                if (touches(changes[gapStart - 1], next)) {
+                    changes[gapEnd] = toEnd(join(changes[gapStart - 1], next));
+                    changes[--gapStart] = null;
+                }
+            }
+        }
+
+        List<Change> toList() {
+            final List<Change> result = new ArrayList<>(size());
+            for (int i = 0; i < size(); i++) {
+                result.add(get(i));
+            }
+            return result;
+        }
+
+        private void append(Change change) {
+            if (gapStart > 0 && touches(changes[gapStart - 1], change)) {
+                changes[gapStart - 1] = join(changes[gapStart - 1], change);
+            } else {
+                changes[gapStart++] = change;
+            }
+        }
+
+        private void moveGap(int position) {
+            // without a gap both indexes point to the same slot, so it is cleared before it is written
+            while (gapStart > position) {
+                final Change change = changes[--gapStart];
+                changes[gapStart] = null;
+                changes[--gapEnd] = toEnd(change);
+            }
+            while (gapStart < position) {
+                final Change change = changes[gapEnd];
+                changes[gapEnd++] = null;
+                changes[gapStart++] = fromEnd(change);
+            }
+        }
+
+        private void grow(int needed) {
+            final int tail = changes.length - gapEnd;
+            final int capacity = Math.max(size() + needed, 2 * changes.length);
+            final Change[] grown = new Change[capacity];
+            System.arraycopy(changes, 0, grown, 0, gapStart);
+            System.arraycopy(changes, gapEnd, grown, capacity - tail, tail);
+            changes = grown;
+            gapEnd = capacity - tail;
+        }
+
+        private Change toEnd(Change change) {
+            return shift(change, -length(ORIGINAL), -length(REVISED));
+        }
+
+        private Change fromEnd(Change change) {
+            return shift(change, length(ORIGINAL), length(REVISED));
+        }
+
+        private boolean touches(Change previous, Change change) {
+            return previous.endOriginal == change.startOriginal && previous.endRevised == change.startRevised;
+        }
+
+        private Change join(Change previous, Change change) {
+            return Changes.of(previous.startOriginal, change.endOriginal, previous.startRevised, change.endRevised);
+        }
+
+        private Change shift(Change change, int offsetOriginal, int offsetRevised) {
+            return new Change(change.deltaType, change.startOriginal + offsetOriginal,
+                    change.endOriginal + offsetOriginal, change.startRevised + offsetRevised,
+                    change.endRevised + offsetRevised);
+        }
+    }
+}
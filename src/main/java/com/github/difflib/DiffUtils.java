@@ -19,15 +19,34 @@ limitations under the License.
  */
 package com.github.difflib;
 
+import com.github.difflib.algorithm.Change;
+import com.github.difflib.algorithm.Changes;
+import com.github.difflib.algorithm.CompactChanges;
 import com.github.difflib.algorithm.DiffAlgorithm;
+import com.github.difflib.algorithm.DiffBudget;
 import com.github.difflib.algorithm.DiffException;
+import com.github.difflib.algorithm.HashingStrategy;
+import com.github.difflib.algorithm.Mismatch;
+import com.github.difflib.algorithm.SymbolDiffAlgorithm;
+import com.github.difflib.algorithm.SymbolTable;
+import com.github.difflib.algorithm.lcs.BitParallelLcsDiff;
 import com.github.difflib.algorithm.myers.MyersDiff;
+import com.github.difflib.merge.MergeResult;
+import com.github.difflib.merge.ThreeWayMerge;
 import com.github.difflib.patch.Delta;
 import com.github.difflib.patch.Patch;
 import com.github.difflib.patch.PatchFailedException;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.function.BiPredicate;
+import java.util.function.Consumer;
 
 import static java.util.stream.Collectors.joining;
 
@@ -52,6 +71,18 @@ public final class DiffUtils {
         return DiffUtils.diff(original, revised, new MyersDiff<>(), linesBeforeAfter);
     }
 
+    /**
+     * Merges the changes of two revisions of a common base with {@link MyersDiff}.
+     *
+     * @param base   The common ancestor. Must not be {@code null}.
+     * @param ours   Our revision of the base. Must not be {@code null}.
+     * @param theirs Their revision of the base. Must not be {@code null}.
+     * @return The merged lines and the conflicting regions. Never {@code null}.
+     */
+    public static <T> MergeResult<T> merge(List<T> base, List<T> ours, List<T> theirs) throws DiffException {
+        return new ThreeWayMerge<T>().merge(base, ours, theirs);
+    }
+
     /**
      * Computes the difference between the original and revised text.
      */
@@ -80,6 +111,10 @@ public final class DiffUtils {
 
     /**
      * Computes the difference between the original and revised list of elements with default diff algorithm
+     * <p>
+     * If the algorithm compares by {@code equals} (see {@link DiffAlgorithm#comparesByEquals()}), the common head and
+     * tail of both lists are stripped before it is called, only the differing middle part is given to it. If one side
+     * is completely covered by head and tail, e.g. lines were only appended, the algorithm is not called at all.
      *
      * @param original         The original text. Must not be {@code null}.
      * @param revised          The revised text. Must not be {@code null}.
@@ -93,12 +128,248 @@ public final class DiffUtils {
         Objects.requireNonNull(revised, "revised must not be null");
         Objects.requireNonNull(algorithm, "algorithm must not be null");
 
-        return Patch.generate(original, revised, algorithm.diff(original, revised), linesBeforeAfter);
+        return Patch.generate(original, revised, diffTrimmed(original, revised, algorithm), linesBeforeAfter);
+    }
+
+    /**
+     * Computes the difference between the original and revised list of elements, reporting blocks of at least
+     * {@code minMoveSize} elements deleted at one position and inserted at another one as
+     * {@link com.github.difflib.patch.MoveDelta}.
+     *
+     * @param original         The original text. Must not be {@code null}.
+     * @param revised          The revised text. Must not be {@code null}.
+     * @param algorithm        The diff algorithm. Must not be {@code null}.
+     * @param linesBeforeAfter - Amount of lines for before and after chunk content
+     * @param minMoveSize      The minimum number of elements of a moved block.
+     * @return The patch describing the difference between the original and revised sequences. Never {@code null}.
+     */
+    public static <T> Patch<T> diffWithMoves(List<T> original, List<T> revised, DiffAlgorithm<T> algorithm,
+                                             int linesBeforeAfter, int minMoveSize) throws DiffException {
+        Objects.requireNonNull(original, "original must not be null");
+        Objects.requireNonNull(revised, "revised must not be null");
+        Objects.requireNonNull(algorithm, "algorithm must not be null");
+
+        return Patch.generate(original, revised, diffTrimmed(original, revised, algorithm), linesBeforeAfter,
+                minMoveSize);
+    }
+
+    /**
+     * Computes the changes between the original and revised list of elements as {@link CompactChanges}, stripping the
+     * common head and tail like {@link #diff(List, List, DiffAlgorithm, int)}. Use
+     * {@link Patch#of(List, List, CompactChanges, int)} to get a patch of them.
+     *
+     * @param original  The original text. Must not be {@code null}.
+     * @param revised   The revised text. Must not be {@code null}.
+     * @param algorithm The diff algorithm. Must not be {@code null}.
+     * @return The changes between the original and revised sequences, in ascending order. Never {@code null}.
+     */
+    public static <T> CompactChanges diffCompact(List<T> original, List<T> revised,
+                                                 DiffAlgorithm<T> algorithm) throws DiffException {
+        Objects.requireNonNull(original, "original must not be null");
+        Objects.requireNonNull(revised, "revised must not be null");
+        Objects.requireNonNull(algorithm, "algorithm must not be null");
+
+        if (!algorithm.comparesByEquals()) {
+            return algorithm.diffCompact(original, revised);
+        }
+        final int[] ends = commonEnds(original, revised);
+        final int prefix = ends[0];
+        final int endOriginal = original.size() - ends[1];
+        final int endRevised = revised.size() - ends[1];
+        if (prefix == endOriginal || prefix == endRevised) {
+            final CompactChanges changes = new CompactChanges(1);
+            if (prefix < endOriginal || prefix < endRevised) {
+                changes.append(prefix, endOriginal, prefix, endRevised);
+            }
+            return changes;
+        }
+        final CompactChanges changes = algorithm.diffCompact(original.subList(prefix, endOriginal),
+                revised.subList(prefix, endRevised));
+        changes.shift(prefix, prefix);
+        return changes;
+    }
+
+    /**
+     * Computes the difference between the original and revised list of elements comparing them by the given strategy.
+     * Both lists are interned once, so the strategy is applied once per element, and the algorithm works on the ids.
+     * This way every algorithm honors the strategy, e.g.
+     * {@code DiffUtils.diff(original, revised, HashingStrategy.comparing(String::trim), new HistogramDiff<>(), 0)}.
+     *
+     * @param original         The original text. Must not be {@code null}.
+     * @param revised          The revised text. Must not be {@code null}.
+     * @param strategy         The equality of the elements. Must not be {@code null}.
+     * @param algorithm        The diff algorithm, working on the ids of the elements. Must not be {@code null}.
+     * @param linesBeforeAfter - Amount of lines for before and after chunk content
+     * @return The patch describing the difference between the original and revised sequences. Never {@code null}.
+     */
+    public static <T> Patch<T> diff(List<T> original, List<T> revised, HashingStrategy<? super T> strategy,
+                                    DiffAlgorithm<Integer> algorithm, int linesBeforeAfter) throws DiffException {
+        Objects.requireNonNull(original, "original must not be null");
+        Objects.requireNonNull(revised, "revised must not be null");
+        Objects.requireNonNull(strategy, "strategy must not be null");
+        Objects.requireNonNull(algorithm, "algorithm must not be null");
+
+        SymbolTable<T> table = new SymbolTable<>(strategy, original.size() + revised.size());
+        final int[] originalIds = table.intern(original);
+        final int[] revisedIds = table.intern(revised);
+        return Patch.generate(original, revised, diffTrimmed(originalIds, revisedIds, algorithm), linesBeforeAfter);
+    }
+
+    /**
+     * Computes the difference between the lines of two UTF-8 encoded files with the default diff algorithm.
+     *
+     * @see #diff(Path, Path, Charset, DiffAlgorithm, int)
+     */
+    public static Patch<String> diff(Path original, Path revised, int linesBeforeAfter) throws DiffException, IOException {
+        return DiffUtils.diff(original, revised, StandardCharsets.UTF_8, new MyersDiff<>(), linesBeforeAfter);
+    }
+
+    /**
+     * Computes the difference between the lines of two files. Both files are mapped into memory, the lines are hashed
+     * and compared as raw bytes and only the lines of the resulting deltas are decoded to strings. Lines end with a line
+     * feed, a carriage return before it is ignored.
+     *
+     * @param original         The original file. Must not be {@code null}.
+     * @param revised          The revised file. Must not be {@code null}.
+     * @param charset          The charset of both files. It has to encode the line feed as the single byte
+     *                         {@code 0x0A}, like UTF-8 or ISO-8859-1. Must not be {@code null}.
+     * @param algorithm        The diff algorithm, working on the ids of the lines. Must not be {@code null}.
+     * @param linesBeforeAfter - Amount of lines for before and after chunk content
+     * @return The patch describing the difference between the original and revised files. Never {@code null}.
+     * @throws IOException if a file cannot be read or is larger than 2 GB
+     */
+    public static Patch<String> diff(Path original, Path revised, Charset charset, DiffAlgorithm<Integer> algorithm,
+                                     int linesBeforeAfter) throws DiffException, IOException {
+        Objects.requireNonNull(original, "original must not be null");
+        Objects.requireNonNull(revised, "revised must not be null");
+        Objects.requireNonNull(charset, "charset must not be null");
+        Objects.requireNonNull(algorithm, "algorithm must not be null");
+
+        final MappedText originalText = MappedText.map(original);
+        final MappedText revisedText = MappedText.map(revised);
+        final int[][] ids = MappedText.intern(originalText, revisedText);
+        final List<Change> changes = diffTrimmed(ids[0], ids[1], algorithm);
+        return Patch.generate(originalText.lines(charset), revisedText.lines(charset), changes, linesBeforeAfter);
     }
 
     /**
-     * Computes the difference between the given texts inline. This one uses the "trick" to make out of texts lists of
-     * characters, like DiffRowGenerator does and merges those changes at the end together again.
+     * Computes the difference between the lines of two readers without reading them into memory completely, see
+     * {@link StreamingDiff}. The deltas are passed to the consumer as soon as they are known.
+     *
+     * @param original   The original text. Must not be {@code null}.
+     * @param revised    The revised text. Must not be {@code null}.
+     * @param windowSize the maximum number of lines of each text held in memory
+     * @param consumer   receives the deltas in ascending order. Must not be {@code null}.
+     */
+    public static void diff(Reader original, Reader revised, int windowSize,
+                            Consumer<? super Delta<String>> consumer) throws DiffException, IOException {
+        Objects.requireNonNull(original, "original must not be null");
+        Objects.requireNonNull(revised, "revised must not be null");
+
+        final Iterator<String> originalLines = new BufferedReader(original).lines().iterator();
+        final Iterator<String> revisedLines = new BufferedReader(revised).lines().iterator();
+        try {
+            new StreamingDiff<String>(new MyersDiff<>(), windowSize).diff(originalLines, revisedLines, consumer);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Strips the common head and tail, lets the algorithm compute the changes of the remaining part and moves them back
+     * to their positions within the complete lists. Algorithms with an equality other than {@code equals} get the
+     * complete lists, they would not regard the stripped elements as equal.
+     */
+    static <T> List<Change> diffTrimmed(List<T> original, List<T> revised,
+                                        DiffAlgorithm<T> algorithm) throws DiffException {
+        if (!algorithm.comparesByEquals()) {
+            return algorithm.diff(original, revised);
+        }
+        final int N = original.size();
+        final int M = revised.size();
+        final int[] ends = commonEnds(original, revised);
+        final int prefix = ends[0];
+        final int suffix = ends[1];
+
+        final int endOriginal = N - suffix;
+        final int endRevised = M - suffix;
+        if (prefix == endOriginal && prefix == endRevised) {
+            return new ArrayList<>();
+        }
+        if (prefix == endOriginal) {
+            return new ArrayList<>(Collections.singletonList(Changes.of(prefix, prefix, prefix, endRevised)));
+        }
+        if (prefix == endRevised) {
+            return new ArrayList<>(Collections.singletonList(Changes.of(prefix, endOriginal, prefix, prefix)));
+        }
+        if (prefix == 0 && suffix == 0) {
+            return algorithm.diff(original, revised);
+        }
+
+        List<Change> changes = algorithm.diff(original.subList(prefix, endOriginal), revised.subList(prefix, endRevised));
+        List<Change> shifted = new ArrayList<>(changes.size());
+        Changes.addShifted(shifted, changes, prefix, prefix);
+        return shifted;
+    }
+
+    /**
+     * Like {@link #diffTrimmed(List, List, DiffAlgorithm)} for interned sequences. The remaining part is given to the
+     * algorithm as symbols, see {@link SymbolDiffAlgorithm#diffSymbols(DiffAlgorithm, int[], int[], DiffBudget)}.
+     */
+    static List<Change> diffTrimmed(int[] original, int[] revised, DiffAlgorithm<Integer> algorithm)
+            throws DiffException {
+        final int N = original.length;
+        final int M = revised.length;
+        final int prefix = Mismatch.commonPrefix(original, 0, revised, 0, Math.min(N, M));
+        final int suffix = Mismatch.commonSuffix(original, N, revised, M, Math.min(N, M) - prefix);
+
+        final int endOriginal = N - suffix;
+        final int endRevised = M - suffix;
+        if (prefix == endOriginal && prefix == endRevised) {
+            return new ArrayList<>();
+        }
+        if (prefix == endOriginal || prefix == endRevised) {
+            return new ArrayList<>(Collections.singletonList(Changes.of(prefix, endOriginal, prefix, endRevised)));
+        }
+        if (prefix == 0 && suffix == 0) {
+            return SymbolDiffAlgorithm.diffSymbols(algorithm, original, revised, DiffBudget.unlimited());
+        }
+
+        List<Change> changes = SymbolDiffAlgorithm.diffSymbols(algorithm,
+                Arrays.copyOfRange(original, prefix, endOriginal), Arrays.copyOfRange(revised, prefix, endRevised),
+                DiffBudget.unlimited());
+        List<Change> shifted = new ArrayList<>(changes.size());
+        Changes.addShifted(shifted, changes, prefix, prefix);
+        return shifted;
+    }
+
+    /**
+     * @return the length of the common head at index 0 and of the common tail, not overlapping the head, at index 1
+     */
+    private static <T> int[] commonEnds(List<T> original, List<T> revised) {
+        final int N = original.size();
+        final int M = revised.size();
+
+        int prefix = 0;
+        ListIterator<T> origIt = original.listIterator();
+        ListIterator<T> revIt = revised.listIterator();
+        while (origIt.hasNext() && revIt.hasNext() && Objects.equals(origIt.next(), revIt.next())) {
+            prefix++;
+        }
+
+        int suffix = 0;
+        origIt = original.listIterator(N);
+        revIt = revised.listIterator(M);
+        while (suffix < N - prefix && suffix < M - prefix
+                && Objects.equals(origIt.previous(), revIt.previous())) {
+            suffix++;
+        }
+        return new int[]{prefix, suffix};
+    }
+
+    /**
+     * Computes the difference between the given texts inline. The characters are compared by
+     * {@link BitParallelLcsDiff}, the deltas contain the changed characters merged together again.
      *
      * @param original
      * @param revised
@@ -106,15 +377,8 @@ public final class DiffUtils {
      * @return
      */
     public static Patch<String> diffInline(String original, String revised, int linesBeforeAfter) throws DiffException {
-        List<String> origList = new ArrayList<>();
-        List<String> revList = new ArrayList<>();
-        for (Character character : original.toCharArray()) {
-            origList.add(character.toString());
-        }
-        for (Character character : revised.toCharArray()) {
-            revList.add(character.toString());
-        }
-        Patch<String> patch = DiffUtils.diff(origList, revList, linesBeforeAfter);
+        List<Change> changes = new BitParallelLcsDiff().diff(original, revised);
+        Patch<String> patch = Patch.generate(characters(original), characters(revised), changes, linesBeforeAfter);
         for (Delta<String> delta : patch.getDeltas()) {
             delta.getOriginal().setLines(compressLines(delta.getOriginal().getLines(), ""));
             delta.getRevised().setLines(compressLines(delta.getRevised().getLines(), ""));
@@ -122,6 +386,23 @@ public final class DiffUtils {
         return patch;
     }
 
+    /**
+     * The characters of a text as one character strings, created only when accessed.
+     */
+    private static List<String> characters(String text) {
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                return String.valueOf(text.charAt(index));
+            }
+
+            @Override
+            public int size() {
+                return text.length();
+            }
+        };
+    }
+
     private static List<String> compressLines(List<String> lines, String delimiter) {
         if (lines.isEmpty()) {
             return Collections.emptyList();
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A text file mapped into memory together with the offsets of its lines. Lines end with a line feed, a carriage return
+ * before it is not part of the line. The lines are hashed and compared as raw bytes, strings are only created for lines
+ * actually accessed via {@link #lines(Charset)}. This works for all charsets encoding the line feed as the single byte
+ * {@code 0x0A}, like UTF-8 or ISO-8859-1.
+ */
+final class MappedText {
+
+    private final ByteBuffer bytes;
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] hashes;
+    private final int lineCount;
+
+    private MappedText(ByteBuffer bytes) {
+        this.bytes = bytes;
+        final int size = bytes.limit();
+        int[] lineStarts = new int[16];
+        int[] lineEnds = new int[16];
+        int[] lineHashes = new int[16];
+        int count = 0;
+        int start = 0;
+        // the lines are split and hashed in the same pass, so every byte is read once
+        int h = 0;
+        int previous = 0;
+        for (int i = 0; i <= size; i++) {
+            final int b = i == size ? '\n' : bytes.get(i);
+            if (b != '\n') {
+                h = 31 * h + previous;
+                previous = b;
+            } else if (i < size || i > start) {
+                if (count == lineStarts.length) {
+                    lineStarts = Arrays.copyOf(lineStarts, count * 2);
+                    lineEnds = Arrays.copyOf(lineEnds, count * 2);
+                    lineHashes = Arrays.copyOf(lineHashes, count * 2);
+                }
+                final boolean carriageReturn = i > start && previous == '\r';
+                if (i > start && !carriageReturn) {
+                    h = 31 * h + previous;
+                }
+                lineStarts[count] = start;
+                lineEnds[count] = carriageReturn ? i - 1 : i;
+                lineHashes[count] = h ^ (h >>> 16);
+                count++;
+                start = i + 1;
+                h = 0;
+                previous = 0;
+            }
+        }
+        this.starts = lineStarts;
+        this.ends = lineEnds;
+        this.hashes = lineHashes;
+        this.lineCount = count;
+    }
+
+    /**
+     * Maps the given file read only. The mapping stays valid after the file is closed.
+     *
+     * @throws IOException if the file cannot be read or is larger than 2 GB
+     */
+    static MappedText map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("file too large to be mapped: " + path);
+            }
+            return new MappedText(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    static MappedText of(ByteBuffer bytes) {
+        return new MappedText(bytes);
+    }
+
+    int size() {
+        return lineCount;
+    }
+
+    private boolean lineEquals(int line, MappedText other, int otherLine) {
+        final int length = ends[line] - starts[line];
+        if (length != other.ends[otherLine] - other.starts[otherLine]) {
+            return false;
+        }
+        final int offset = starts[line];
+        final int otherOffset = other.starts[otherLine];
+        int i = 0;
+        for (; i + 8 <= length; i += 8) {
+            if (bytes.getLong(offset + i) != other.bytes.getLong(otherOffset + i)) {
+                return false;
+            }
+        }
+        for (; i < length; i++) {
+            if (bytes.get(offset + i) != other.bytes.get(otherOffset + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    String line(int line, Charset charset) {
+        final byte[] content = new byte[ends[line] - starts[line]];
+        final ByteBuffer view = bytes.duplicate();
+        view.position(starts[line]);
+        view.get(content);
+        return new String(content, charset);
+    }
+
+    /**
+     * @return the lines as strings, each decoded when accessed
+     */
+    List<String> lines(Charset charset) {
+        return new Lines(charset);
+    }
+
+    /**
+     * Interns the lines of both texts, equal lines get the same id.
+     *
+     * @return the ids of the original text at index 0 and of the revised text at index 1
+     */
+    static int[][] intern(MappedText original, MappedText revised) {
+        final int total = original.lineCount + revised.lineCount;
+        int capacity = 16;
+        while (capacity < 2 * total) {
+            capacity <<= 1;
+        }
+        // open addressing, slots hold id + 1 and the representative line of each id is kept
+        final int[] slots = new int[capacity];
+        final int[] hashes = new int[total];
+        final MappedText[] texts = new MappedText[total];
+        final int[] lines = new int[total];
+        int symbols = 0;
+        final int[][] ids = new int[][]{new int[original.lineCount], new int[revised.lineCount]};
+        final MappedText[] sources = {original, revised};
+        for (int s = 0; s < 2; s++) {
+            final MappedText text = sources[s];
+            for (int line = 0; line < text.lineCount; line++) {
+                final int hash = text.hashes[line];
+                int slot = hash & (capacity - 1);
+                int id;
+                while (true) {
+                    if (slots[slot] == 0) {
+                        id = symbols++;
+                        slots[slot] = id + 1;
+                        hashes[id] = hash;
+                        texts[id] = text;
+                        lines[id] = line;
+                        break;
+                    }
+                    id = slots[slot] - 1;
+                    if (hashes[id] == hash && text.lineEquals(line, texts[id], lines[id])) {
+                        break;
+                    }
+                    slot = (slot + 1) & (capacity - 1);
+                }
+                ids[s][line] = id;
+            }
+        }
+        return ids;
+    }
+
+    private final class Lines extends AbstractList<String> implements RandomAccess {
+
+        private final Charset charset;
+
+        Lines(Charset charset) {
+            this.charset = charset;
+        }
+
+        @Override
+        public String get(int index) {
+            if (index < 0 || index >= lineCount) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + lineCount);
+            }
+            return line(index, charset);
+        }
+
+        @Override
+        public int size() {
+            return lineCount;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib;
+
+import com.github.difflib.algorithm.Change;
+import com.github.difflib.algorithm.Changes;
+import com.github.difflib.algorithm.DiffAlgorithm;
+import com.github.difflib.algorithm.DiffBudget;
+import com.github.difflib.algorithm.DiffException;
+import com.github.difflib.algorithm.Mismatch;
+import com.github.difflib.algorithm.SymbolDiffAlgorithm;
+import com.github.difflib.algorithm.myers.MyersDiff;
+import com.github.difflib.patch.Patch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A base sequence prepared once to be diffed against many revisions, e.g. one config file against all its deployed
+ * variants. The preparation interns the base lines and records the position of every line occurring exactly once.
+ * A diff then only hashes the lines of the revision: lines unique in both sequences are matched by a lookup in that
+ * table, the longest increasing run of those matches is kept as anchors and the regions in between are given to the
+ * algorithm, working on the interned ids.
+ * <p>
+ * The prepared state is never modified after construction, so one instance can be used by many threads at once; the
+ * algorithm is then called concurrently and has to be thread safe. The base is copied, later changes of the given list
+ * do not affect the instance.
+ *
+ * @param <T> The type of the compared elements in the 'lines'.
+ */
+public final class PreparedDiff<T> {
+
+    private final List<T> base;
+    private final DiffAlgorithm<Integer> algorithm;
+    private final Map<T, Integer> symbols;
+    private final int[] ids;
+    /**
+     * per id the position of its only occurrence in the base, -1 if it occurs more than once
+     */
+    private final int[] uniquePosition;
+
+    /**
+     * Uses {@link MyersDiff} for the regions between the anchors.
+     */
+    public PreparedDiff(List<T> base) {
+        this(base, new MyersDiff<>());
+    }
+
+    /**
+     * @param base      the base all revisions are compared to. Must not be {@code null}.
+     * @param algorithm the algorithm for the regions between the anchors, working on the ids of the elements. Must
+     *                  not be {@code null}.
+     */
+    public PreparedDiff(List<T> base, DiffAlgorithm<Integer> algorithm) {
+        Objects.requireNonNull(base, "base must not be null");
+        Objects.requireNonNull(algorithm, "algorithm must not be null");
+        this.base = Collections.unmodifiableList(new ArrayList<>(base));
+        this.algorithm = algorithm;
+        this.symbols = new HashMap<>(base.size() * 2);
+        this.ids = new int[base.size()];
+        for (int i = 0; i < ids.length; i++) {
+            final T element = this.base.get(i);
+            Integer id = symbols.get(element);
+            if (id == null) {
+                id = symbols.size();
+                symbols.put(element, id);
+            }
+            ids[i] = id;
+        }
+        this.uniquePosition = new int[symbols.size()];
+        Arrays.fill(uniquePosition, -2);
+        for (int i = 0; i < ids.length; i++) {
+            uniquePosition[ids[i]] = uniquePosition[ids[i]] == -2 ? i : -1;
+        }
+    }
+
+    public List<T> getBase() {
+        return base;
+    }
+
+    /**
+     * Computes the changes turning the base into the revision.
+     *
+     * @param revised the revision. Must not be {@code null}.
+     * @return the changes in ascending order
+     */
+    public List<Change> changes(List<T> revised) throws DiffException {
+        Objects.requireNonNull(revised, "revised must not be null");
+
+        // lines not in the base get ids of their own, in a map local to this call
+        final int[] rev = new int[revised.size()];
+        final Map<T, Integer> added = new HashMap<>();
+        for (int j = 0; j < rev.length; j++) {
+            final T element = revised.get(j);
+            Integer id = symbols.get(element);
+            if (id == null) {
+                id = added.get(element);
+                if (id == null) {
+                    id = uniquePosition.length + added.size();
+                    added.put(element, id);
+                }
+            }
+            rev[j] = id;
+        }
+
+        final int[] anchors = anchors(rev);
+        final List<Change> changes = new ArrayList<>();
+        int prev1 = 0;
+        int prev2 = 0;
+        for (int a = 0; a <= anchors.length; a++) {
+            final int end2 = a < anchors.length ? anchors[a] : rev.length;
+            final int end1 = a < anchors.length ? uniquePosition[rev[end2]] : ids.length;
+            // most regions between anchors are equal, they are compared without boxing
+            final int prefix = Mismatch.commonPrefix(ids, prev1, rev, prev2, Math.min(end1 - prev1, end2 - prev2));
+            final int suffix = Mismatch.commonSuffix(ids, end1, rev, end2,
+                    Math.min(end1 - prev1, end2 - prev2) - prefix);
+            final int s1 = prev1 + prefix;
+            final int s2 = prev2 + prefix;
+            final int e1 = end1 - suffix;
+            final int e2 = end2 - suffix;
+            if (s1 < e1 && s2 < e2) {
+                Changes.addShifted(changes, SymbolDiffAlgorithm.diffSymbols(algorithm,
+                        Arrays.copyOfRange(ids, s1, e1), Arrays.copyOfRange(rev, s2, e2), DiffBudget.unlimited()),
+                        s1, s2);
+            } else if (s1 < e1 || s2 < e2) {
+                changes.add(Changes.of(s1, e1, s2, e2));
+            }
+            prev1 = end1 + 1;
+            prev2 = end2 + 1;
+        }
+        changes.sort(Comparator.<Change>comparingInt(c -> c.startOriginal).thenComparingInt(c -> c.startRevised));
+        return changes;
+    }
+
+    /**
+     * Computes the patch turning the base into the revision.
+     *
+     * @param revised          the revision. Must not be {@code null}.
+     * @param linesBeforeAfter - Amount of lines for before and after chunk content
+     * @return The patch describing the difference between the base and the revision. Never {@code null}.
+     */
+    public Patch<T> diff(List<T> revised, int linesBeforeAfter) throws DiffException {
+        return Patch.generate(base, revised, changes(revised), linesBeforeAfter);
+    }
+
+    /**
+     * @return the revised positions of the anchors, the lines unique in both sequences forming the longest run with
+     * ascending positions in the base
+     */
+    private int[] anchors(int[] rev) {
+        final int[] count = new int[uniquePosition.length];
+        for (int id : rev) {
+            if (id < count.length && uniquePosition[id] >= 0) {
+                count[id]++;
+            }
+        }
+        // patience sorting over the base positions of the candidates, which are visited in revised order
+        final int[] tails = new int[rev.length];
+        final int[] predecessor = new int[rev.length];
+        int length = 0;
+        for (int j = 0; j < rev.length; j++) {
+            final int id = rev[j];
+            if (id >= count.length || count[id] != 1) {
+                continue;
+            }
+            final int position = uniquePosition[id];
+            // revisions mostly keep the order of the base, then the candidate just extends the longest run
+            int low = length > 0 && uniquePosition[rev[tails[length - 1]]] < position ? length : 0;
+            int high = length;
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (uniquePosition[rev[tails[mid]]] < position) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            predecessor[j] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = j;
+            if (low == length) {
+                length++;
+            }
+        }
+        final int[] anchors = new int[length];
+        for (int k = length - 1, j = length > 0 ? tails[length - 1] : -1; k >= 0; k--, j = predecessor[j]) {
+            anchors[k] = j;
+        }
+        return anchors;
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib;
+
+import com.github.difflib.algorithm.Change;
+import com.github.difflib.algorithm.DiffAlgorithm;
+import com.github.difflib.algorithm.DiffException;
+import com.github.difflib.algorithm.myers.MyersDiff;
+import com.github.difflib.patch.ChangeDelta;
+import com.github.difflib.patch.Chunk;
+import com.github.difflib.patch.DeleteDelta;
+import com.github.difflib.patch.Delta;
+import com.github.difflib.patch.InsertDelta;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Diff of two sequences read from iterators, e.g. the lines of two huge files. At most a window of elements of each
+ * sequence is held in memory: equal elements at the head are dropped right away, the differing part is filled up to
+ * the window size and given to the algorithm. The changes which are followed by enough elements within both windows to
+ * be sure about their end are emitted as deltas and dropped, then the windows are filled up again. A
+ * {@link java.util.Spliterator} can be read via {@link java.util.Spliterators#iterator(java.util.Spliterator)}.
+ * <p>
+ * Differences spanning more than the window cannot be resolved within it, they are reported as coarse changes. The
+ * result is always valid, but only minimal for changes well inside the window. The deltas are emitted in ascending
+ * order, without surrounding lines. Positions are int values like everywhere in the patches of this library.
+ *
+ * @param <T> The type of the compared elements in the 'lines'.
+ */
+public final class StreamingDiff<T> {
+
+    public static final int DEFAULT_WINDOW_SIZE = 4096;
+
+    private final DiffAlgorithm<T> algorithm;
+    private final int windowSize;
+    private final int margin;
+
+    /**
+     * Uses {@link MyersDiff} and the default window size.
+     */
+    public StreamingDiff() {
+        this(new MyersDiff<>(), DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * @param algorithm  the algorithm used for the windows. Must not be {@code null}.
+     * @param windowSize the maximum number of elements of each sequence held in memory
+     */
+    public StreamingDiff(DiffAlgorithm<T> algorithm, int windowSize) {
+        Objects.requireNonNull(algorithm, "algorithm must not be null");
+        if (windowSize < 2) {
+            throw new IllegalArgumentException("windowSize must be at least 2");
+        }
+        this.algorithm = algorithm;
+        this.windowSize = windowSize;
+        // changes ending within the last quarter of a window may still be extended by elements not read yet
+        this.margin = Math.max(1, windowSize / 4);
+    }
+
+    /**
+     * Computes the difference between both sequences and passes the deltas to the consumer as soon as they are known.
+     *
+     * @param original the original sequence. Must not be {@code null}.
+     * @param revised  the revised sequence. Must not be {@code null}.
+     * @param consumer receives the deltas in ascending order. Must not be {@code null}.
+     */
+    public void diff(Iterator<? extends T> original, Iterator<? extends T> revised,
+                     Consumer<? super Delta<T>> consumer) throws DiffException {
+        Objects.requireNonNull(original, "original must not be null");
+        Objects.requireNonNull(revised, "revised must not be null");
+        Objects.requireNonNull(consumer, "consumer must not be null");
+
+        final List<T> orig = new ArrayList<>(windowSize);
+        final List<T> rev = new ArrayList<>(windowSize);
+        // positions of the first buffered elements within the sequences
+        int origPos = 0;
+        int revPos = 0;
+        while (true) {
+            fill(orig, original);
+            fill(rev, revised);
+            int head = 0;
+            while (head < orig.size() && head < rev.size() && Objects.equals(orig.get(head), rev.get(head))) {
+                head++;
+            }
+            if (head > 0) {
+                orig.subList(0, head).clear();
+                rev.subList(0, head).clear();
+                origPos += head;
+                revPos += head;
+                continue;
+            }
+            if (orig.isEmpty() && rev.isEmpty()) {
+                return;
+            }
+            if (orig.isEmpty() || rev.isEmpty()) {
+                // the other sequence is exhausted, the whole window is inserted or deleted
+                consumer.accept(toDelta(orig, rev, origPos, revPos, 0, orig.size(), 0, rev.size()));
+                origPos += orig.size();
+                revPos += rev.size();
+                orig.clear();
+                rev.clear();
+                continue;
+            }
+
+            final List<Change> changes = new ArrayList<>(algorithm.diff(orig, rev));
+            if (changes.isEmpty()) {
+                // the algorithm's equalizer may be looser than equals, then both windows are equal to it
+                origPos += orig.size();
+                revPos += rev.size();
+                orig.clear();
+                rev.clear();
+                continue;
+            }
+            changes.sort(Comparator.<Change>comparingInt(c -> c.startOriginal).thenComparingInt(c -> c.startRevised));
+            // at the end of a sequence there is nothing left to extend a change
+            final int limit1 = original.hasNext() ? orig.size() - margin : orig.size();
+            final int limit2 = revised.hasNext() ? rev.size() - margin : rev.size();
+            int consumed1 = 0;
+            int consumed2 = 0;
+            for (Change change : changes) {
+                if (change.endOriginal > limit1 || change.endRevised > limit2) {
+                    break;
+                }
+                consumer.accept(toDelta(orig, rev, origPos, revPos,
+                        change.startOriginal, change.endOriginal, change.startRevised, change.endRevised));
+                consumed1 = change.endOriginal;
+                consumed2 = change.endRevised;
+            }
+            if (consumed1 == 0 && consumed2 == 0) {
+                // the first change spans (nearly) the whole window and is taken as it is
+                final Change first = changes.get(0);
+                consumer.accept(toDelta(orig, rev, origPos, revPos,
+                        first.startOriginal, first.endOriginal, first.startRevised, first.endRevised));
+                consumed1 = first.endOriginal;
+                consumed2 = first.endRevised;
+            }
+            orig.subList(0, consumed1).clear();
+            rev.subList(0, consumed2).clear();
+            origPos += consumed1;
+            revPos += consumed2;
+        }
+    }
+
+    private void fill(List<T> buffer, Iterator<? extends T> source) {
+        while (buffer.size() < windowSize && source.hasNext()) {
+            buffer.add(source.next());
+        }
+    }
+
+    /**
+     * Creates the delta of a change within the windows. The lines are copied, since the windows are reused.
+     */
+    private static <T> Delta<T> toDelta(List<T> orig, List<T> rev, int origPos, int revPos,
+                                        int start1, int end1, int start2, int end2) {
+        final Chunk<T> orgChunk = new Chunk<>(origPos + start1, new ArrayList<>(orig.subList(start1, end1)));
+        final Chunk<T> revChunk = new Chunk<>(revPos + start2, new ArrayList<>(rev.subList(start2, end2)));
+        if (start1 == end1) {
+            return new InsertDelta<>(orgChunk, revChunk);
+        } else if (start2 == end2) {
+            return new DeleteDelta<>(orgChunk, revChunk);
+        }
+        return new ChangeDelta<>(orgChunk, revChunk);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.algorithm;
+
+import com.github.difflib.patch.DeltaType;
+
+import java.util.List;
+
+/**
+ * Helpers for algorithms creating {@link Change}s from ranges or reusing the changes of a delegate.
+ */
+public final class Changes {
+
+    private Changes() {
+    }
+
+    /**
+     * Returns the type of a change given by its ranges: an empty original range is an insert, an empty revised range a
+     * delete and everything else a change.
+     */
+    public static DeltaType typeOf(int startOriginal, int endOriginal, int startRevised, int endRevised) {
+        if (startOriginal == endOriginal) {
+            return DeltaType.INSERT;
+        } else if (startRevised == endRevised) {
+            return DeltaType.DELETE;
+        }
+        return DeltaType.CHANGE;
+    }
+
+    /**
+     * Creates a change of the type given by its ranges, see {@link #typeOf(int, int, int, int)}.
+     */
+    public static Change of(int startOriginal, int endOriginal, int startRevised, int endRevised) {
+        return new Change(typeOf(startOriginal, endOriginal, startRevised, endRevised),
+                startOriginal, endOriginal, startRevised, endRevised);
+    }
+
+    /**
+     * Adds the changes computed for parts of both sequences to the target, moved by the start offsets of these parts.
+     */
+    public static void addShifted(List<Change> target, List<Change> changes, int offsetOriginal, int offsetRevised) {
+        for (Change change : changes) {
+            target.add(new Change(change.deltaType, change.startOriginal + offsetOriginal,
+                    change.endOriginal + offsetOriginal, change.startRevised + offsetRevised,
+                    change.endRevised + offsetRevised));
+        }
+    }
+}
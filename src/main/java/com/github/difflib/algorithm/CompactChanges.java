@@ -0,0 +1,219 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.algorithm;
+
+import com.github.difflib.patch.DeltaType;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * A list of changes stored in parallel arrays, one byte for the type and four ints for the ranges per change, instead
+ * of one {@link Change} object each. For diffs with many small changes this takes about half of the memory and no
+ * allocation per change. Algorithms can emit it directly via {@link DiffAlgorithm#diffCompact(List, List)},
+ * {@link #asList()} views it as changes, created on access, and
+ * {@link com.github.difflib.patch.Patch#of(List, List, CompactChanges, int)} wraps it in a patch.
+ */
+public final class CompactChanges {
+
+    private static final DeltaType[] TYPES = DeltaType.values();
+
+    private byte[] types;
+    private int[] startOriginal;
+    private int[] endOriginal;
+    private int[] startRevised;
+    private int[] endRevised;
+    private int size;
+
+    public CompactChanges() {
+        this(16);
+    }
+
+    public CompactChanges(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must not be negative");
+        }
+        types = new byte[capacity];
+        startOriginal = new int[capacity];
+        endOriginal = new int[capacity];
+        startRevised = new int[capacity];
+        endRevised = new int[capacity];
+    }
+
+    /**
+     * @param changes the changes to copy. Must not be {@code null}.
+     */
+    public static CompactChanges of(List<Change> changes) {
+        Objects.requireNonNull(changes, "changes must not be null");
+        final CompactChanges compact = new CompactChanges(changes.size());
+        for (Change change : changes) {
+            compact.add(change.deltaType, change.startOriginal, change.endOriginal, change.startRevised,
+                    change.endRevised);
+        }
+        return compact;
+    }
+
+    public void add(DeltaType type, int startOriginal, int endOriginal, int startRevised, int endRevised) {
+        Objects.requireNonNull(type, "type must not be null");
+        if (size == types.length) {
+            grow();
+        }
+        this.types[size] = (byte) type.ordinal();
+        this.startOriginal[size] = startOriginal;
+        this.endOriginal[size] = endOriginal;
+        this.startRevised[size] = startRevised;
+        this.endRevised[size] = endRevised;
+        size++;
+    }
+
+    /**
+     * Appends a change of the type given by its ranges. Changes have to be appended in ascending order, a change
+     * directly adjacent to the last one is merged into it.
+     */
+    public void append(int startOriginal, int endOriginal, int startRevised, int endRevised) {
+        int s1 = startOriginal;
+        int s2 = startRevised;
+        if (size > 0 && this.endOriginal[size - 1] == startOriginal && this.endRevised[size - 1] == startRevised) {
+            size--;
+            s1 = this.startOriginal[size];
+            s2 = this.startRevised[size];
+        }
+        add(Changes.typeOf(s1, endOriginal, s2, endRevised), s1, endOriginal, s2, endRevised);
+    }
+
+    /**
+     * Appends all changes of the other list, which have to follow the changes of this one. The first of them is merged
+     * into the last change of this list if they are adjacent.
+     */
+    public void appendAll(CompactChanges other) {
+        Objects.requireNonNull(other, "other must not be null");
+        if (other.size == 0) {
+            return;
+        }
+        append(other.startOriginal[0], other.endOriginal[0], other.startRevised[0], other.endRevised[0]);
+        final int count = other.size - 1;
+        while (size + count > types.length) {
+            grow();
+        }
+        System.arraycopy(other.types, 1, types, size, count);
+        System.arraycopy(other.startOriginal, 1, startOriginal, size, count);
+        System.arraycopy(other.endOriginal, 1, endOriginal, size, count);
+        System.arraycopy(other.startRevised, 1, startRevised, size, count);
+        System.arraycopy(other.endRevised, 1, endRevised, size, count);
+        size += count;
+    }
+
+    /**
+     * Moves all changes by the given offsets, e.g. after diffing a part of both sequences.
+     */
+    public void shift(int offsetOriginal, int offsetRevised) {
+        for (int i = 0; i < size; i++) {
+            startOriginal[i] += offsetOriginal;
+            endOriginal[i] += offsetOriginal;
+            startRevised[i] += offsetRevised;
+            endRevised[i] += offsetRevised;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public DeltaType getType(int index) {
+        return TYPES[types[checkIndex(index)]];
+    }
+
+    public int getStartOriginal(int index) {
+        return startOriginal[checkIndex(index)];
+    }
+
+    public int getEndOriginal(int index) {
+        return endOriginal[checkIndex(index)];
+    }
+
+    public int getStartRevised(int index) {
+        return startRevised[checkIndex(index)];
+    }
+
+    public int getEndRevised(int index) {
+        return endRevised[checkIndex(index)];
+    }
+
+    /**
+     * @return the change at the given index as a new object
+     */
+    public Change get(int index) {
+        checkIndex(index);
+        return new Change(TYPES[types[index]], startOriginal[index], endOriginal[index], startRevised[index],
+                endRevised[index]);
+    }
+
+    /**
+     * @return an unmodifiable view of the changes, each created when accessed
+     */
+    public List<Change> asList() {
+        return new ChangeList();
+    }
+
+    /**
+     * @return the changes as a new modifiable list
+     */
+    public List<Change> toList() {
+        return new ArrayList<>(asList());
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return index;
+    }
+
+    private void grow() {
+        final int capacity = Math.max(16, types.length * 2);
+        types = Arrays.copyOf(types, capacity);
+        startOriginal = Arrays.copyOf(startOriginal, capacity);
+        endOriginal = Arrays.copyOf(endOriginal, capacity);
+        startRevised = Arrays.copyOf(startRevised, capacity);
+        endRevised = Arrays.copyOf(endRevised, capacity);
+    }
+
+    @Override
+    public String toString() {
+        return "CompactChanges{" + "size=" + size + '}';
+    }
+
+    private final class ChangeList extends AbstractList<Change> implements RandomAccess {
+
+        @Override
+        public Change get(int index) {
+            return CompactChanges.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -23,6 +23,7 @@ import com.github.difflib.patch.Patch;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * The general interface for computing diffs between two lists of elements of type T.
@@ -54,4 +55,46 @@ public interface DiffAlgorithm<T> {
      * @return The patch representing the diff of the given sequences. Never {@code null}.
      */
     List<Change> diff(List<T> original, List<T> revised) throws DiffException;
+
+    /**
+     * Computes the difference between the original sequence and the revised sequence within the given budget. The
+     * budget belongs to this call, so the algorithm itself stays free of state and can be shared. Algorithms which do
+     * not check budgets in their inner loops charge the size of both sequences once and compute the complete diff.
+     *
+     * @param original The original sequence. Must not be {@code null}.
+     * @param revised  The revised sequence. Must not be {@code null}.
+     * @param budget   The budget to check. Must not be {@code null}.
+     * @return The changes between the given sequences. Never {@code null}.
+     * @throws DiffBudgetExceededException if the budget is exhausted and not in best effort mode
+     */
+    default List<Change> diff(List<T> original, List<T> revised, DiffBudget budget) throws DiffException {
+        Objects.requireNonNull(budget, "budget must not be null");
+        budget.charge((long) original.size() + revised.size());
+        return diff(original, revised);
+    }
+
+    /**
+     * Computes the difference between the original sequence and the revised sequence as {@link CompactChanges}.
+     * Algorithms which build their changes one by one can emit them directly; by default the result of
+     * {@link #diff(List, List)} is copied.
+     *
+     * @param original The original sequence. Must not be {@code null}.
+     * @param revised  The revised sequence. Must not be {@code null}.
+     * @return The changes between the given sequences, in ascending order. Never {@code null}.
+     */
+    default CompactChanges diffCompact(List<T> original, List<T> revised) throws DiffException {
+        return CompactChanges.of(diff(original, revised));
+    }
+
+    /**
+     * Tells whether this algorithm compares the elements by {@link Object#equals(Object)}. Only then the common head
+     * and tail of both sequences may be stripped by {@code equals} before the algorithm is called, e.g. by
+     * {@link com.github.difflib.DiffUtils#diff(List, List, DiffAlgorithm, int)}. The default is {@code false}, which
+     * is always safe.
+     *
+     * @return true if equal elements are exactly those being {@code equals}
+     */
+    default boolean comparesByEquals() {
+        return false;
+    }
 }
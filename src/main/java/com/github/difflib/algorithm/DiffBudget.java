@@ -0,0 +1,194 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.algorithm;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the resources a diff may use. Algorithms supporting a budget report their work (roughly the number of visited
+ * nodes of the edit graph) to it in their inner loops. Every few thousand units the budget checks the work limit, the
+ * deadline, whether it was cancelled and whether the current thread was interrupted. If one of those applies a
+ * {@link DiffBudgetExceededException} is thrown, or, in best effort mode, the algorithm stops refining and reports the
+ * remaining parts as plain changes. The result is then a valid but coarse script.
+ * <p>
+ * A budget is passed to {@link DiffAlgorithm#diff(java.util.List, java.util.List, DiffBudget)} and meant to be used for
+ * one request: work is accumulated over all diffs using it and the deadline is computed when the budget is built. The
+ * algorithms keep no budget of their own and can be shared. A budget is not thread safe, except for {@link #cancel()},
+ * which may be called from any thread.
+ */
+public final class DiffBudget {
+
+    private static final int CHECK_INTERVAL = 1 << 12;
+
+    private static final DiffBudget UNLIMITED = new DiffBudget(new Builder(), true);
+
+    private final boolean unlimited;
+    private final long maxWork;
+    private final long deadline;
+    private final boolean hasDeadline;
+    private final boolean bestEffort;
+    private volatile boolean cancelled;
+    private long work;
+    private long nextCheck;
+    private String exceeded;
+
+    private DiffBudget(Builder builder, boolean unlimited) {
+        this.unlimited = unlimited;
+        this.maxWork = builder.maxWork;
+        this.hasDeadline = builder.timeoutNanos >= 0;
+        this.deadline = hasDeadline ? System.nanoTime() + builder.timeoutNanos : 0;
+        this.bestEffort = builder.bestEffort;
+        this.nextCheck = maxWork < CHECK_INTERVAL ? maxWork + 1 : CHECK_INTERVAL;
+    }
+
+    /**
+     * @return the budget used by algorithms without an explicit budget. It never runs out and cannot be cancelled.
+     */
+    public static DiffBudget unlimited() {
+        return UNLIMITED;
+    }
+
+    public static Builder create() {
+        return new Builder();
+    }
+
+    /**
+     * Adds work to this budget. Called by the algorithms from their inner loops.
+     *
+     * @param units the amount of work done since the last call
+     * @throws DiffBudgetExceededException if the budget is exhausted
+     */
+    public void charge(long units) throws DiffBudgetExceededException {
+        if (unlimited) {
+            return;
+        }
+        work += units;
+        if (work >= nextCheck) {
+            check();
+        }
+    }
+
+    private void check() throws DiffBudgetExceededException {
+        if (exceeded == null) {
+            if (work > maxWork) {
+                exceeded = "work limit of " + maxWork + " exceeded";
+            } else if (cancelled) {
+                exceeded = "diff cancelled";
+            } else if (Thread.currentThread().isInterrupted()) {
+                exceeded = "diff interrupted";
+            } else if (hasDeadline && System.nanoTime() - deadline >= 0) {
+                exceeded = "deadline exceeded";
+            }
+        }
+        if (exceeded != null) {
+            throw new DiffBudgetExceededException(exceeded);
+        }
+        final long remaining = maxWork - work;
+        nextCheck = work + (remaining < CHECK_INTERVAL ? remaining + 1 : CHECK_INTERVAL);
+    }
+
+    /**
+     * Cancels all diffs using this budget. They stop at their next check. Has no effect on the unlimited budget.
+     */
+    public void cancel() {
+        if (!unlimited) {
+            cancelled = true;
+        }
+    }
+
+    /**
+     * @return true if a {@link DiffBudgetExceededException} was thrown already
+     */
+    public boolean isExceeded() {
+        return exceeded != null;
+    }
+
+    /**
+     * @return true if the algorithms should return a coarse result instead of throwing an exception
+     */
+    public boolean isBestEffort() {
+        return bestEffort;
+    }
+
+    /**
+     * @return the work reported so far
+     */
+    public long getWork() {
+        return work;
+    }
+
+    /**
+     * This class used for building a DiffBudget.
+     */
+    public static final class Builder {
+
+        private long maxWork = Long.MAX_VALUE;
+        private long timeoutNanos = -1;
+        private boolean bestEffort = false;
+
+        private Builder() {
+        }
+
+        /**
+         * Limits the work, roughly the number of visited nodes of the edit graph.
+         *
+         * @param val the maximum work. Default: unlimited.
+         * @return builder with configured work limit
+         */
+        public Builder maxWork(long val) {
+            if (val < 0) {
+                throw new IllegalArgumentException("maxWork must not be negative");
+            }
+            maxWork = val;
+            return this;
+        }
+
+        /**
+         * Sets a deadline relative to the time {@link #build()} is called.
+         *
+         * @param val  the time the diffs may take
+         * @param unit the unit of the given time
+         * @return builder with configured deadline
+         */
+        public Builder timeout(long val, TimeUnit unit) {
+            if (val < 0) {
+                throw new IllegalArgumentException("timeout must not be negative");
+            }
+            timeoutNanos = unit.toNanos(val);
+            return this;
+        }
+
+        /**
+         * Return a coarse result instead of throwing a {@link DiffBudgetExceededException} if the budget is exhausted.
+         *
+         * @param val the value to set. Default: false.
+         * @return builder with configured best effort mode
+         */
+        public Builder bestEffort(boolean val) {
+            bestEffort = val;
+            return this;
+        }
+
+        /**
+         * Build the DiffBudget. The deadline starts now.
+         *
+         * @return the customized DiffBudget
+         */
+        public DiffBudget build() {
+            return new DiffBudget(this, false);
+        }
+    }
+}
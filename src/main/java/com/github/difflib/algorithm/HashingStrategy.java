@@ -0,0 +1,52 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.algorithm;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Equality of elements together with a matching hash code, used to intern sequences with a {@link SymbolTable}. Unlike
+ * a plain equalizer this allows grouping equal elements by hashing, so every algorithm can work on the interned ids.
+ * <p>
+ * Two elements equal according to {@link #equals(Object, Object)} must have the same {@link #hash(Object)}.
+ *
+ * @param <T> The type of the compared elements in the 'lines'.
+ */
+public interface HashingStrategy<T> {
+
+    int hash(T element);
+
+    boolean equals(T first, T second);
+
+    /**
+     * @return the strategy using {@link Object#equals(Object)} and {@link Object#hashCode()}
+     */
+    static <T> HashingStrategy<T> natural() {
+        return comparing(Function.identity());
+    }
+
+    /**
+     * Compares elements by a key, e.g. a normalized form of a line. A {@link SymbolTable} computes the key only once per
+     * element, so an expensive normalization is not repeated on every comparison.
+     *
+     * @param key the function computing the key of an element. Must not be {@code null}.
+     */
+    static <T> HashingStrategy<T> comparing(Function<? super T, ?> key) {
+        Objects.requireNonNull(key, "key must not be null");
+        return new KeyHashingStrategy<>(key);
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.algorithm;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Strategy comparing the keys of the elements. Recognized by {@link SymbolTable}, which hashes the keys directly.
+ */
+final class KeyHashingStrategy<T> implements HashingStrategy<T> {
+
+    final Function<? super T, ?> key;
+
+    KeyHashingStrategy(Function<? super T, ?> key) {
+        this.key = key;
+    }
+
+    @Override
+    public int hash(T element) {
+        return Objects.hashCode(key.apply(element));
+    }
+
+    @Override
+    public boolean equals(T first, T second) {
+        return Objects.equals(key.apply(first), key.apply(second));
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.algorithm;
+
+/**
+ * Length of the common run of two int sequences, used by the algorithms to extend snakes and to strip common prefixes
+ * and suffixes of interned sequences.
+ * <p>
+ * This is the Java 8 version comparing one element at a time. The multi-release jar contains a version for Java 9 and
+ * later which uses the vectorized {@code Arrays.mismatch}.
+ */
+public final class Mismatch {
+
+    private Mismatch() {
+    }
+
+    /**
+     * @param a      the first sequence
+     * @param aFrom  the start within the first sequence
+     * @param b      the second sequence
+     * @param bFrom  the start within the second sequence
+     * @param length the maximum length to compare, may be negative
+     * @return the number of equal elements from both starts on, at most {@code length}
+     */
+    public static int commonPrefix(int[] a, int aFrom, int[] b, int bFrom, int length) {
+        int i = 0;
+        while (i < length && a[aFrom + i] == b[bFrom + i]) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @param a      the first sequence
+     * @param aTo    the end (exclusive) within the first sequence
+     * @param b      the second sequence
+     * @param bTo    the end (exclusive) within the second sequence
+     * @param length the maximum length to compare, may be negative
+     * @return the number of equal elements before both ends, at most {@code length}
+     */
+    public static int commonSuffix(int[] a, int aTo, int[] b, int bTo, int length) {
+        int i = 0;
+        while (i < length && a[aTo - 1 - i] == b[bTo - 1 - i]) {
+            i++;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.algorithm;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An algorithm which diffs sequences of symbols, e.g. the ids of a {@link SymbolTable} or code points, directly.
+ * Callers which have interned their elements already pass the ids as they are, so they are neither boxed nor interned
+ * a second time. The symbols are compared by value, an equalizer given to the algorithm is not used.
+ */
+public interface SymbolDiffAlgorithm {
+
+    /**
+     * Computes the changes between two sequences of symbols.
+     *
+     * @param original The original sequence. Must not be {@code null}.
+     * @param revised  The revised sequence. Must not be {@code null}.
+     * @return the changes, in ascending order
+     */
+    List<Change> diff(int[] original, int[] revised) throws DiffException;
+
+    /**
+     * Computes the changes between two sequences of symbols within the given budget, see
+     * {@link DiffAlgorithm#diff(List, List, DiffBudget)}.
+     *
+     * @param original The original sequence. Must not be {@code null}.
+     * @param revised  The revised sequence. Must not be {@code null}.
+     * @param budget   The budget to check. Must not be {@code null}.
+     * @return the changes, in ascending order
+     * @throws DiffBudgetExceededException if the budget is exhausted and not in best effort mode
+     */
+    default List<Change> diff(int[] original, int[] revised, DiffBudget budget) throws DiffException {
+        Objects.requireNonNull(budget, "budget must not be null");
+        budget.charge((long) original.length + revised.length);
+        return diff(original, revised);
+    }
+
+    /**
+     * Diffs two sequences of symbols with any algorithm: directly if it is a {@link SymbolDiffAlgorithm}, otherwise the
+     * symbols are given to it as {@link Integer} elements.
+     *
+     * @param algorithm The algorithm, which has to accept {@link Integer} elements. Must not be {@code null}.
+     * @param original  The original sequence. Must not be {@code null}.
+     * @param revised   The revised sequence. Must not be {@code null}.
+     * @param budget    The budget to check. Must not be {@code null}.
+     * @return the changes computed by the algorithm
+     */
+    @SuppressWarnings("unchecked")
+    static List<Change> diffSymbols(DiffAlgorithm<?> algorithm, int[] original, int[] revised, DiffBudget budget)
+            throws DiffException {
+        Objects.requireNonNull(algorithm, "algorithm must not be null");
+        if (algorithm instanceof SymbolDiffAlgorithm) {
+            return ((SymbolDiffAlgorithm) algorithm).diff(original, revised, budget);
+        }
+        return ((DiffAlgorithm<Integer>) algorithm).diff(boxed(original), boxed(revised), budget);
+    }
+
+    /**
+     * A view of the symbols as {@link Integer} elements, boxed only when accessed.
+     */
+    static List<Integer> boxed(int[] symbols) {
+        Objects.requireNonNull(symbols, "symbols must not be null");
+        return new AbstractList<Integer>() {
+            @Override
+            public Integer get(int index) {
+                return symbols[index];
+            }
+
+            @Override
+            public int size() {
+                return symbols.length;
+            }
+        };
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.algorithm;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Maps elements to dense int ids. Equal elements (according to {@link Object#equals(Object)} and
+ * {@link Object#hashCode()}) get the same id, so after interning both sequences the algorithms only have to compare
+ * ints. Every element costs exactly one hash lookup.
+ * <p>
+ * Another notion of equality can be given as {@link HashingStrategy}. For a strategy created by
+ * {@link HashingStrategy#comparing(Function)} the key of each element is computed once and hashed directly.
+ * <p>
+ * T The type of the compared elements in the 'lines'.
+ */
+public final class SymbolTable<T> {
+
+    private final Map<Object, Integer> symbols;
+    private final Function<? super T, ?> key;
+
+    public SymbolTable() {
+        this(16);
+    }
+
+    /**
+     * @param expectedSize expected number of elements to intern, used to size the table
+     */
+    public SymbolTable(int expectedSize) {
+        symbols = new HashMap<>(Math.max(16, (int) (expectedSize / 0.75f) + 1));
+        key = Function.identity();
+    }
+
+    /**
+     * @param strategy     the equality of the elements. Must not be {@code null}.
+     * @param expectedSize expected number of elements to intern, used to size the table
+     */
+    public SymbolTable(HashingStrategy<? super T> strategy, int expectedSize) {
+        Objects.requireNonNull(strategy, "strategy must not be null");
+        symbols = new HashMap<>(Math.max(16, (int) (expectedSize / 0.75f) + 1));
+        if (strategy instanceof KeyHashingStrategy) {
+            key = ((KeyHashingStrategy<? super T>) strategy).key;
+        } else {
+            key = element -> new Element<>(strategy, element);
+        }
+    }
+
+    /**
+     * Creates a symbol table and interns both sequences with it.
+     *
+     * @return the ids of the original sequence at index 0 and of the revised sequence at index 1
+     */
+    public static <T> int[][] intern(List<T> original, List<T> revised) {
+        SymbolTable<T> table = new SymbolTable<>(original.size() + revised.size());
+        return new int[][]{table.intern(original), table.intern(revised)};
+    }
+
+    /**
+     * Returns both sequences of symbols with all symbols between 0 (inclusive) and the sum of their lengths (exclusive),
+     * so they can be used as index of tables. Sequences within this range, like the ids of a table which interned only
+     * them, are returned as they are. Others, e.g. the ids of a small region of a large table, are renumbered.
+     *
+     * @return the symbols of the original sequence at index 0 and of the revised sequence at index 1
+     */
+    public static int[][] compact(int[] original, int[] revised) {
+        final int limit = original.length + revised.length;
+        if (isWithin(original, limit) && isWithin(revised, limit)) {
+            return new int[][]{original, revised};
+        }
+        int[] symbols = Arrays.copyOf(original, limit);
+        System.arraycopy(revised, 0, symbols, original.length, revised.length);
+        Arrays.sort(symbols);
+        int distinct = 0;
+        for (int i = 0; i < symbols.length; i++) {
+            if (i == 0 || symbols[i] != symbols[i - 1]) {
+                symbols[distinct++] = symbols[i];
+            }
+        }
+        return new int[][]{renumber(original, symbols, distinct), renumber(revised, symbols, distinct)};
+    }
+
+    private static boolean isWithin(int[] sequence, int limit) {
+        for (int symbol : sequence) {
+            if (symbol < 0 || symbol >= limit) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int[] renumber(int[] sequence, int[] symbols, int distinct) {
+        final int[] ids = new int[sequence.length];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = Arrays.binarySearch(symbols, 0, distinct, sequence[i]);
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the ids of all elements of the given sequence. Elements not seen before get the next free id.
+     *
+     * @param sequence the sequence to intern. Must not be {@code null}.
+     * @return the ids, one per element
+     */
+    public int[] intern(List<T> sequence) {
+        final int[] ids = new int[sequence.size()];
+        int i = 0;
+        for (T element : sequence) {
+            ids[i++] = symbols.computeIfAbsent(key.apply(element), e -> symbols.size());
+        }
+        return ids;
+    }
+
+    /**
+     * @return the number of distinct elements seen so far, all ids are smaller than this value
+     */
+    public int size() {
+        return symbols.size();
+    }
+
+    /**
+     * An element as key of the table, hashed and compared by a strategy.
+     */
+    private static final class Element<T> {
+
+        private final HashingStrategy<? super T> strategy;
+        private final T element;
+        private final int hash;
+
+        Element(HashingStrategy<? super T> strategy, T element) {
+            this.strategy = strategy;
+            this.element = element;
+            this.hash = strategy.hash(element);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean equals(Object obj) {
+            return obj instanceof Element && strategy.equals(element, ((Element<T>) obj).element);
+        }
+    }
+}
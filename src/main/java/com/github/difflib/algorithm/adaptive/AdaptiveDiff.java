@@ -0,0 +1,218 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.algorithm.adaptive;
+
+import com.github.difflib.algorithm.Change;
+import com.github.difflib.algorithm.Changes;
+import com.github.difflib.algorithm.DiffAlgorithm;
+import com.github.difflib.algorithm.DiffBudget;
+import com.github.difflib.algorithm.DiffBudgetExceededException;
+import com.github.difflib.algorithm.DiffException;
+import com.github.difflib.algorithm.Mismatch;
+import com.github.difflib.algorithm.SymbolDiffAlgorithm;
+import com.github.difflib.algorithm.SymbolTable;
+import com.github.difflib.algorithm.histogram.HistogramDiff;
+import com.github.difflib.algorithm.lcs.HuntSzymanskiDiff;
+import com.github.difflib.algorithm.myers.MyersDiffWithLinearSpace;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Chooses the algorithm per call from a few statistics of the input, which are collected in one pass over the interned
+ * sequences after stripping the common prefix and suffix:
+ * <ul>
+ * <li>small inputs are diffed with Myers right away,</li>
+ * <li>if the edit distance may be small, Myers is tried with a work limit proportional to the input size, which keeps
+ * near identical inputs at linear cost,</li>
+ * <li>otherwise inputs with few matching pairs, e.g. rewritten files, are diffed with {@link HuntSzymanskiDiff},</li>
+ * <li>inputs with many matching pairs with {@link HistogramDiff} if they have unique common elements to anchor on, else
+ * with {@link MyersDiffWithLinearSpace}.</li>
+ * </ul>
+ * The result is always a valid script, but depending on the chosen algorithm not necessarily a minimal one.
+ */
+public final class AdaptiveDiff<T> implements DiffAlgorithm<T>, SymbolDiffAlgorithm {
+
+    /**
+     * Inputs up to this size (original and revised together, after stripping) are always diffed with Myers.
+     */
+    static final int SMALL_SIZE = 256;
+    /**
+     * Work allowed for the Myers attempt, per element of both sequences.
+     */
+    static final int MYERS_WORK_PER_ELEMENT = 8;
+
+    enum Engine {
+        MYERS,
+        HUNT_SZYMANSKI,
+        HISTOGRAM
+    }
+
+    @Override
+    public boolean comparesByEquals() {
+        return true;
+    }
+
+    @Override
+    public List<Change> diff(final List<T> original, final List<T> revised) throws DiffException {
+        Objects.requireNonNull(original, "original list must not be null");
+        Objects.requireNonNull(revised, "revised list must not be null");
+
+        SymbolTable<T> table = new SymbolTable<>(original.size() + revised.size());
+        final int[] orig = table.intern(original);
+        final int[] rev = table.intern(revised);
+        return diff(orig, rev, table.size());
+    }
+
+    @Override
+    public List<Change> diff(final int[] original, final int[] revised) throws DiffException {
+        Objects.requireNonNull(original, "original sequence must not be null");
+        Objects.requireNonNull(revised, "revised sequence must not be null");
+
+        final int[][] symbols = SymbolTable.compact(original, revised);
+        return diff(symbols[0], symbols[1], original.length + revised.length);
+    }
+
+    /**
+     * Diffs the interned sequences, the chosen algorithm gets the symbols of the stripped region.
+     */
+    private List<Change> diff(final int[] orig, final int[] rev, final int symbols) throws DiffException {
+        final Statistics stats = new Statistics(orig, rev, symbols);
+        final int start = stats.prefix;
+        final int end1 = orig.length - stats.suffix;
+        final int end2 = rev.length - stats.suffix;
+
+        final List<Change> changes = new ArrayList<>();
+        if (start == end1 && start == end2) {
+            return changes;
+        }
+        if (start == end1 || start == end2) {
+            changes.add(Changes.of(start, end1, start, end2));
+            return changes;
+        }
+
+        final int[] a = Arrays.copyOfRange(orig, start, end1);
+        final int[] b = Arrays.copyOfRange(rev, start, end2);
+        List<Change> regionChanges = null;
+        if (stats.isMyersFirst()) {
+            final DiffBudget budget = stats.size() <= SMALL_SIZE
+                    ? DiffBudget.unlimited()
+                    : DiffBudget.create().maxWork((long) MYERS_WORK_PER_ELEMENT * stats.size()).build();
+            try {
+                regionChanges = new MyersDiffWithLinearSpace<Integer>().diff(a, b, budget);
+            } catch (DiffBudgetExceededException e) {
+                // the edit distance is larger than estimated
+            }
+        }
+        if (regionChanges == null) {
+            switch (stats.select()) {
+                case HUNT_SZYMANSKI:
+                    regionChanges = new HuntSzymanskiDiff<Integer>().diff(a, b);
+                    break;
+                case HISTOGRAM:
+                    regionChanges = new HistogramDiff<Integer>().diff(a, b);
+                    break;
+                default:
+                    regionChanges = new MyersDiffWithLinearSpace<Integer>().diff(a, b);
+                    break;
+            }
+        }
+
+        Changes.addShifted(changes, regionChanges, start, start);
+        return changes;
+    }
+
+    /**
+     * Statistics of the input, all computed in linear time from the interned sequences. The counts refer to the
+     * ranges left after stripping the common prefix and suffix.
+     */
+    static final class Statistics {
+
+        final int prefix;
+        final int suffix;
+        final int lengthOriginal;
+        final int lengthRevised;
+        /**
+         * number of matching pairs, the sum over all elements of the original of their occurrences in the revised range
+         */
+        final long matchingPairs;
+        /**
+         * number of elements occurring exactly once in both ranges
+         */
+        final int uniqueCommon;
+        /**
+         * lower bound of the edit distance (inserted plus deleted elements), derived from the element counts
+         */
+        final int editLowerBound;
+
+        Statistics(int[] orig, int[] rev, int symbols) {
+            prefix = Mismatch.commonPrefix(orig, 0, rev, 0, Math.min(orig.length, rev.length));
+            suffix = Mismatch.commonSuffix(orig, orig.length, rev, rev.length,
+                    Math.min(orig.length, rev.length) - prefix);
+            final int end1 = orig.length - suffix;
+            final int end2 = rev.length - suffix;
+            lengthOriginal = end1 - prefix;
+            lengthRevised = end2 - prefix;
+
+            final int[] countOriginal = new int[symbols];
+            final int[] countRevised = new int[symbols];
+            for (int i = prefix; i < end1; i++) {
+                countOriginal[orig[i]]++;
+            }
+            for (int j = prefix; j < end2; j++) {
+                countRevised[rev[j]]++;
+            }
+            long pairs = 0;
+            int unique = 0;
+            int common = 0;
+            for (int id = 0; id < symbols; id++) {
+                pairs += (long) countOriginal[id] * countRevised[id];
+                common += Math.min(countOriginal[id], countRevised[id]);
+                if (countOriginal[id] == 1 && countRevised[id] == 1) {
+                    unique++;
+                }
+            }
+            matchingPairs = pairs;
+            uniqueCommon = unique;
+            // a common subsequence cannot contain more elements than both ranges have in common
+            editLowerBound = lengthOriginal + lengthRevised - 2 * common;
+        }
+
+        int size() {
+            return lengthOriginal + lengthRevised;
+        }
+
+        /**
+         * @return true if the input is small or its edit distance may be small, so that Myers is tried first
+         */
+        boolean isMyersFirst() {
+            return size() <= SMALL_SIZE || editLowerBound <= size() / 4;
+        }
+
+        /**
+         * @return the engine for inputs too large or too different for the Myers attempt
+         */
+        Engine select() {
+            if (matchingPairs <= (long) HuntSzymanskiDiff.DEFAULT_MAX_MATCHES_PER_ELEMENT * size()) {
+                return Engine.HUNT_SZYMANSKI;
+            }
+            // without unique elements the histogram diff would mostly use its Myers fallback anyway
+            return uniqueCommon > 0 ? Engine.HISTOGRAM : Engine.MYERS;
+        }
+    }
+}
@@ -0,0 +1,344 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.algorithm.histogram;
+
+import com.github.difflib.algorithm.Change;
+import com.github.difflib.algorithm.Changes;
+import com.github.difflib.algorithm.DiffAlgorithm;
+import com.github.difflib.algorithm.DiffBudget;
+import com.github.difflib.algorithm.DiffBudgetExceededException;
+import com.github.difflib.algorithm.DiffException;
+import com.github.difflib.algorithm.Mismatch;
+import com.github.difflib.algorithm.SymbolDiffAlgorithm;
+import com.github.difflib.algorithm.SymbolTable;
+import com.github.difflib.algorithm.myers.MyersDiffWithLinearSpace;
+import com.github.difflib.patch.DeltaType;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Histogram diff without any dependencies. It follows the algorithm of JGit's HistogramDiff: for each region the
+ * occurrences of all elements of the original part are counted and the longest common sequence with the lowest
+ * occurrence count is used to split the region. Elements occurring more often than the maximum chain length are not
+ * used, if a region has only those in common it is given to the fallback algorithm. Like in JGit the default fallback
+ * is the linear space Myers variant ({@link MyersDiffWithLinearSpace}), since such regions may be huge.
+ * <p>
+ * The regions are split exactly like JGit splits them. The result is only identical to
+ * {@link com.github.difflib.algorithm.jgit.HistogramDiff} if no region is given to the fallback or the fallback is JGit's
+ * Myers diff, the Myers variants of this library may align the edits of such regions differently at equal cost.
+ * <p>
+ * Both sequences are interned first, so the occurrence table is a plain {@code int[]} indexed by the dense symbol ids and
+ * all comparisons are int comparisons.
+ * <p>
+ * If a {@link DiffBudget} in best effort mode is exhausted, all regions not processed yet are reported as one change
+ * each.
+ */
+public final class HistogramDiff<T> implements DiffAlgorithm<T>, SymbolDiffAlgorithm {
+
+    public static final int DEFAULT_MAX_CHAIN_LENGTH = 64;
+
+    private final DiffAlgorithm<T> fallback;
+    private final int maxChainLength;
+
+    public HistogramDiff() {
+        this(new MyersDiffWithLinearSpace<>(), DEFAULT_MAX_CHAIN_LENGTH);
+    }
+
+    /**
+     * @param fallback       algorithm used for regions with too many repeated elements. Must not be {@code null}.
+     * @param maxChainLength maximum number of occurrences of an element within a region to be used for splitting
+     */
+    public HistogramDiff(DiffAlgorithm<T> fallback, int maxChainLength) {
+        Objects.requireNonNull(fallback, "fallback must not be null");
+        if (maxChainLength < 1) {
+            throw new IllegalArgumentException("maxChainLength must be positive");
+        }
+        this.fallback = fallback;
+        this.maxChainLength = maxChainLength;
+    }
+
+    @Override
+    public boolean comparesByEquals() {
+        return true;
+    }
+
+    @Override
+    public List<Change> diff(final List<T> original, final List<T> revised) throws DiffException {
+        return diff(original, revised, DiffBudget.unlimited());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The fallback is called with the same budget.
+     */
+    @Override
+    public List<Change> diff(final List<T> original, final List<T> revised, final DiffBudget budget)
+            throws DiffException {
+        Objects.requireNonNull(original, "original list must not be null");
+        Objects.requireNonNull(revised, "revised list must not be null");
+        Objects.requireNonNull(budget, "budget must not be null");
+
+        SymbolTable<T> table = new SymbolTable<>(original.size() + revised.size());
+        final int[] orig = table.intern(original);
+        final int[] rev = table.intern(revised);
+        return diff(orig, rev, table.size(), original, revised, budget);
+    }
+
+    @Override
+    public List<Change> diff(final int[] original, final int[] revised) throws DiffException {
+        return diff(original, revised, DiffBudget.unlimited());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The fallback is called with the same budget. It gets the symbols of its regions, as {@link Integer} elements if
+     * it is no {@link SymbolDiffAlgorithm}.
+     */
+    @Override
+    public List<Change> diff(final int[] original, final int[] revised, final DiffBudget budget)
+            throws DiffException {
+        Objects.requireNonNull(original, "original sequence must not be null");
+        Objects.requireNonNull(revised, "revised sequence must not be null");
+        Objects.requireNonNull(budget, "budget must not be null");
+
+        final int[][] symbols = SymbolTable.compact(original, revised);
+        return diff(symbols[0], symbols[1], original.length + revised.length, null, null, budget);
+    }
+
+    /**
+     * Diffs the interned sequences. The fallback gets the regions of the elements if they are given, otherwise the
+     * regions of the symbols.
+     */
+    private List<Change> diff(final int[] orig, final int[] rev, final int symbols, final List<T> original,
+                              final List<T> revised, final DiffBudget budget) throws DiffException {
+        final List<Change> changes = new ArrayList<>();
+
+        final int prefix = Mismatch.commonPrefix(orig, 0, rev, 0, Math.min(orig.length, rev.length));
+        final int start1 = prefix;
+        final int start2 = prefix;
+        final int suffix = Mismatch.commonSuffix(orig, orig.length, rev, rev.length,
+                Math.min(orig.length, rev.length) - prefix);
+        final int end1 = orig.length - suffix;
+        final int end2 = rev.length - suffix;
+
+        final boolean replace = start1 < end1 && start2 < end2 && (end1 - start1 > 1 || end2 - start2 > 1);
+        final Index index = new Index(orig, rev, symbols);
+        Deque<int[]> regions = new ArrayDeque<>();
+        regions.push(new int[]{start1, end1, start2, end2});
+        while (!regions.isEmpty()) {
+            final int[] region = regions.pop();
+            final int beginA = region[0];
+            final int endA = region[1];
+            final int beginB = region[2];
+            final int endB = region[3];
+            if (beginA == endA && beginB == endB) {
+                continue;
+            }
+            if (beginA == endA || beginB == endB || (endA - beginA == 1 && endB - beginB == 1)) {
+                changes.add(Changes.of(beginA, endA, beginB, endB));
+                continue;
+            }
+
+            final boolean found;
+            try {
+                found = index.findLongestCommonSequence(budget, beginA, endA, beginB, endB);
+            } catch (DiffBudgetExceededException e) {
+                if (!budget.isBestEffort()) {
+                    throw e;
+                }
+                changes.add(Changes.of(beginA, endA, beginB, endB));
+                addRemainingRegions(regions, changes);
+                break;
+            }
+            if (!found) {
+                List<Change> fallbackChanges;
+                try {
+                    fallbackChanges = original == null
+                            ? SymbolDiffAlgorithm.diffSymbols(fallback, Arrays.copyOfRange(orig, beginA, endA),
+                                    Arrays.copyOfRange(rev, beginB, endB), budget)
+                            : fallback.diff(original.subList(beginA, endA), revised.subList(beginB, endB), budget);
+                } catch (DiffBudgetExceededException e) {
+                    if (!budget.isBestEffort()) {
+                        throw e;
+                    }
+                    changes.add(Changes.of(beginA, endA, beginB, endB));
+                    addRemainingRegions(regions, changes);
+                    break;
+                }
+                Changes.addShifted(changes, fallbackChanges, beginA, beginB);
+            } else if (index.lcsBeginA == index.lcsEndA) {
+                // nothing in common
+                changes.add(Changes.of(beginA, endA, beginB, endB));
+            } else {
+                regions.push(new int[]{index.lcsEndA, endA, index.lcsEndB, endB});
+                regions.push(new int[]{beginA, index.lcsBeginA, beginB, index.lcsBeginB});
+            }
+        }
+
+        changes.sort(Comparator.<Change>comparingInt(c -> c.startOriginal).thenComparingInt(c -> c.startRevised));
+        if (replace) {
+            slideLastInsert(changes, rev);
+        }
+        return changes;
+    }
+
+    /**
+     * Best effort after the budget is exhausted: every remaining region becomes one change.
+     */
+    private static void addRemainingRegions(Deque<int[]> regions, List<Change> changes) {
+        for (int[] region : regions) {
+            if (region[0] < region[1] || region[2] < region[3]) {
+                changes.add(Changes.of(region[0], region[1], region[2], region[3]));
+            }
+        }
+        regions.clear();
+    }
+
+    /**
+     * Like JGit, a trailing insert is moved down as far as the revised sequence allows, so that repeated lines are
+     * reported as appended.
+     */
+    private static void slideLastInsert(List<Change> changes, int[] rev) {
+        final Change last = changes.get(changes.size() - 1);
+        if (last.deltaType != DeltaType.INSERT) {
+            return;
+        }
+        int shift = 0;
+        while (last.endRevised + shift < rev.length && rev[last.startRevised + shift] == rev[last.endRevised + shift]) {
+            shift++;
+        }
+        if (shift > 0) {
+            changes.set(changes.size() - 1, new Change(DeltaType.INSERT, last.startOriginal + shift,
+                    last.endOriginal + shift, last.startRevised + shift, last.endRevised + shift));
+        }
+    }
+
+    /**
+     * Occurrence table of the original part of a region. All arrays are allocated once per diff: {@code count} and
+     * {@code head} are indexed by symbol id, {@code next} chains the occurrences of an element in ascending order. After
+     * each region the counters of the touched symbols are reset.
+     */
+    private final class Index {
+
+        private final int[] a;
+        private final int[] b;
+        private final int[] count;
+        private final int[] head;
+        private final int[] next;
+
+        int lcsBeginA;
+        int lcsEndA;
+        int lcsBeginB;
+        int lcsEndB;
+
+        Index(int[] a, int[] b, int symbols) {
+            this.a = a;
+            this.b = b;
+            this.count = new int[symbols];
+            this.head = new int[symbols];
+            this.next = new int[a.length];
+        }
+
+        /**
+         * Searches the longest common sequence of the region preferring sequences of rare elements.
+         *
+         * @return false if all common elements occur more often than the maximum chain length, otherwise the result is
+         * stored in the lcs fields, which are empty if both parts have nothing in common.
+         */
+        boolean findLongestCommonSequence(DiffBudget budget, int beginA, int endA, int beginB, int endB)
+                throws DiffBudgetExceededException {
+            budget.charge(endA - beginA + endB - beginB);
+            for (int i = endA - 1; i >= beginA; i--) {
+                final int id = a[i];
+                next[i] = count[id] == 0 ? -1 : head[id];
+                head[id] = i;
+                count[id]++;
+            }
+
+            lcsBeginA = 0;
+            lcsEndA = 0;
+            lcsBeginB = 0;
+            lcsEndB = 0;
+            boolean hasCommon = false;
+            int cnt = maxChainLength + 1;
+            int bPtr = beginB;
+            while (bPtr < endB) {
+                int bNext = bPtr + 1;
+                final int occurrences = count[b[bPtr]];
+                if (occurrences > 0) {
+                    hasCommon = true;
+                }
+                if (occurrences > 0 && occurrences <= cnt) {
+                    int as = head[b[bPtr]];
+                    while (true) {
+                        int np = next[as];
+                        int bs = bPtr;
+                        int ae = as + 1;
+                        int be = bs + 1;
+                        int rc = occurrences;
+                        while (beginA < as && beginB < bs && a[as - 1] == b[bs - 1]) {
+                            as--;
+                            bs--;
+                            if (1 < rc) {
+                                rc = Math.min(rc, count[a[as]]);
+                            }
+                        }
+                        while (ae < endA && be < endB && a[ae] == b[be]) {
+                            if (1 < rc) {
+                                rc = Math.min(rc, count[a[ae]]);
+                            }
+                            ae++;
+                            be++;
+                        }
+                        budget.charge(1 + ae - as);
+                        if (bNext < be) {
+                            bNext = be;
+                        }
+                        if (lcsEndA - lcsBeginA < ae - as || rc < cnt) {
+                            lcsBeginA = as;
+                            lcsEndA = ae;
+                            lcsBeginB = bs;
+                            lcsEndB = be;
+                            cnt = rc;
+                        }
+                        // occurrences within the sequence just examined need not to be tried again
+                        while (np != -1 && np < ae) {
+                            np = next[np];
+                        }
+                        if (np == -1) {
+                            break;
+                        }
+                        as = np;
+                    }
+                }
+                bPtr = bNext;
+            }
+
+            for (int i = beginA; i < endA; i++) {
+                count[a[i]] = 0;
+            }
+            return !hasCommon || cnt <= maxChainLength;
+        }
+    }
+}
@@ -18,6 +18,7 @@ package com.github.difflib.algorithm.jgit;
 import com.github.difflib.algorithm.Change;
 import com.github.difflib.algorithm.DiffAlgorithm;
 import com.github.difflib.algorithm.DiffException;
+import com.github.difflib.algorithm.SymbolTable;
 import com.github.difflib.patch.DeltaType;
 import org.eclipse.jgit.diff.Edit;
 import org.eclipse.jgit.diff.EditList;
@@ -35,12 +36,18 @@ import java.util.Objects;
  */
 public class HistogramDiff<T> implements DiffAlgorithm<T> {
 
+    @Override
+    public boolean comparesByEquals() {
+        return true;
+    }
+
     @Override
     public List<Change> diff(List<T> original, List<T> revised) throws DiffException {
         Objects.requireNonNull(original, "original list must not be null");
         Objects.requireNonNull(revised, "revised list must not be null");
+        final int[][] ids = SymbolTable.intern(original, revised);
         EditList diffList = new EditList();
-        diffList.addAll(new org.eclipse.jgit.diff.HistogramDiff().diff(new DataListComparator<>(), new DataList<>(original), new DataList<>(revised)));
+        diffList.addAll(new org.eclipse.jgit.diff.HistogramDiff().diff(new DataListComparator(), new DataList(ids[0]), new DataList(ids[1])));
         List<Change> patch = new ArrayList<>();
         for (Edit edit : diffList) {
             DeltaType type = DeltaType.EQUAL;
@@ -61,30 +68,33 @@ public class HistogramDiff<T> implements DiffAlgorithm<T> {
     }
 }
 
-class DataListComparator<T> extends SequenceComparator<DataList<T>> {
+/**
+ * Compares interned elements. The ids of equal elements are equal, so they are used as hash as well.
+ */
+class DataListComparator extends SequenceComparator<DataList> {
 
     @Override
-    public boolean equals(DataList<T> original, int orgIdx, DataList<T> revised, int revIdx) {
-        return original.data.get(orgIdx).equals(revised.data.get(revIdx));
+    public boolean equals(DataList original, int orgIdx, DataList revised, int revIdx) {
+        return original.data[orgIdx] == revised.data[revIdx];
     }
 
     @Override
-    public int hash(DataList<T> s, int i) {
-        return s.data.get(i).hashCode();
+    public int hash(DataList s, int i) {
+        return s.data[i];
     }
 
 }
 
-class DataList<T> extends Sequence {
+class DataList extends Sequence {
 
-    final List<T> data;
+    final int[] data;
 
-    public DataList(List<T> data) {
+    public DataList(int[] data) {
         this.data = data;
     }
 
     @Override
     public int size() {
-        return data.size();
+        return data.length;
     }
 }
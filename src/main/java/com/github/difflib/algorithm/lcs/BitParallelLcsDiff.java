@@ -0,0 +1,362 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.algorithm.lcs;
+
+import com.github.difflib.algorithm.Change;
+import com.github.difflib.algorithm.Changes;
+import com.github.difflib.algorithm.DiffBudget;
+import com.github.difflib.algorithm.DiffBudgetExceededException;
+import com.github.difflib.algorithm.DiffException;
+import com.github.difflib.algorithm.Mismatch;
+import com.github.difflib.algorithm.SymbolDiffAlgorithm;
+import com.github.difflib.algorithm.myers.MyersDiffWithLinearSpace;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Diff of character or code point sequences based on the bit-parallel LCS algorithm of Hyyrö (a variant of
+ * Allison-Dix). One column of the LCS table is kept as a bit vector over the original sequence, so each element of the
+ * revised sequence is processed with a few word operations per 64 original elements. No objects are created per
+ * element, which makes it suitable for inline diffs of very long lines.
+ * <p>
+ * The edit script is read back from the stored column vectors. If those would get too large, the problem is split in
+ * the middle of the revised sequence (Hirschberg) and both halves are solved independently. Sequences with a very
+ * large alphabet fall back to {@link MyersDiffWithLinearSpace}.
+ * <p>
+ * The running time of the bit-parallel algorithm does not depend on the number of differences, while Myers needs
+ * O(ND). So Myers is tried first with a work limit of about the cost of the bit-parallel algorithm, which keeps
+ * nearly equal texts fast.
+ */
+public final class BitParallelLcsDiff implements SymbolDiffAlgorithm {
+
+    /**
+     * Maximum number of words of the column vectors kept for reading back the script.
+     */
+    private static final int MAX_TRACE_WORDS = 1 << 18;
+
+    /**
+     * Maximum number of words of the match masks of one region.
+     */
+    private static final int MAX_MASK_WORDS = 1 << 22;
+
+    /**
+     * Computes the changes between the characters of both texts.
+     *
+     * @param original The original text. Must not be {@code null}.
+     * @param revised  The revised text. Must not be {@code null}.
+     * @return the changes, in ascending order
+     */
+    public List<Change> diff(CharSequence original, CharSequence revised) throws DiffException {
+        Objects.requireNonNull(original, "original text must not be null");
+        Objects.requireNonNull(revised, "revised text must not be null");
+        return diff(toInts(original), toInts(revised));
+    }
+
+    /**
+     * Computes the changes between two sequences of symbols, e.g. code points.
+     *
+     * @param original The original sequence. Must not be {@code null}.
+     * @param revised  The revised sequence. Must not be {@code null}.
+     * @return the changes, in ascending order
+     */
+    @Override
+    public List<Change> diff(int[] original, int[] revised) throws DiffException {
+        Objects.requireNonNull(original, "original sequence must not be null");
+        Objects.requireNonNull(revised, "revised sequence must not be null");
+
+        // a Myers step costs about four word operations and the splitting doubles the word operations, so both
+        // algorithms take about the same time at this limit
+        final long bitParallelCost = ((long) original.length * revised.length) >>> 7;
+        try {
+            DiffBudget budget = DiffBudget.create().maxWork(bitParallelCost).build();
+            return new MyersDiffWithLinearSpace<Integer>().diff(original, revised, budget);
+        } catch (DiffBudgetExceededException e) {
+            // many differences, the bit-parallel algorithm is faster
+        }
+
+        final Lcs lcs = new Lcs(original, revised);
+        lcs.solve(0, original.length, 0, revised.length);
+        return lcs.toChanges();
+    }
+
+    private static int[] toInts(CharSequence text) {
+        final int[] result = new int[text.length()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = text.charAt(i);
+        }
+        return result;
+    }
+
+    /**
+     * State of one diff: the symbols mapped to dense ids and the matched positions found so far, in ascending order.
+     */
+    private static final class Lcs {
+
+        private final int[] a;
+        private final int[] b;
+        /**
+         * dense ids of the original symbols and of the revised symbols, -1 if a revised symbol is not in the original
+         */
+        private final int[] idA;
+        private final int[] idB;
+        private final int[] slotOf;
+        private int[] matches = new int[32];
+        private int matchCount;
+
+        Lcs(int[] a, int[] b) {
+            this.a = a;
+            this.b = b;
+            int[] symbols = a.clone();
+            Arrays.sort(symbols);
+            int distinct = 0;
+            for (int i = 0; i < symbols.length; i++) {
+                if (i == 0 || symbols[i] != symbols[i - 1]) {
+                    symbols[distinct++] = symbols[i];
+                }
+            }
+            symbols = Arrays.copyOf(symbols, distinct);
+            idA = new int[a.length];
+            for (int i = 0; i < a.length; i++) {
+                idA[i] = Arrays.binarySearch(symbols, a[i]);
+            }
+            idB = new int[b.length];
+            for (int j = 0; j < b.length; j++) {
+                idB[j] = Math.max(-1, Arrays.binarySearch(symbols, b[j]));
+            }
+            slotOf = new int[distinct];
+            Arrays.fill(slotOf, -1);
+        }
+
+        void solve(int fromOriginal, int toOriginal, int fromRevised, int toRevised) throws DiffException {
+            int start1 = fromOriginal;
+            int end1 = toOriginal;
+            int start2 = fromRevised;
+            int end2 = toRevised;
+            final int prefix = Mismatch.commonPrefix(a, start1, b, start2, Math.min(end1 - start1, end2 - start2));
+            for (int p = 0; p < prefix; p++) {
+                addMatch(start1++, start2++);
+            }
+            final int suffix = Mismatch.commonSuffix(a, end1, b, end2, Math.min(end1 - start1, end2 - start2));
+            end1 -= suffix;
+            end2 -= suffix;
+
+            if (start1 < end1 && start2 < end2) {
+                final int n = end1 - start1;
+                final int m = end2 - start2;
+                final int words = (n + 63) >>> 6;
+                final int slots = assignSlots(start1, end1);
+                if ((long) slots * words > MAX_MASK_WORDS) {
+                    releaseSlots(start1, end1);
+                    fallback(start1, end1, start2, end2);
+                } else if (m == 1 || (long) m * words <= MAX_TRACE_WORDS) {
+                    trace(buildMasks(start1, end1, slots, words, false), words, start1, end1, start2, end2);
+                    releaseSlots(start1, end1);
+                } else {
+                    final int mid = start2 + m / 2;
+                    final long[] forward = run(buildMasks(start1, end1, slots, words, false), words, start2, mid, false);
+                    final long[] backward = run(buildMasks(start1, end1, slots, words, true), words, mid, end2, true);
+                    releaseSlots(start1, end1);
+
+                    // forward: LCS of the first i original elements is the number of zero bits below i,
+                    // backward: LCS of the last n - i original elements is the number of zero bits below n - i
+                    final int[] tail = new int[n + 1];
+                    for (int r = 0; r < n; r++) {
+                        tail[r + 1] = tail[r] + 1 - bit(backward, r);
+                    }
+                    int split = 0;
+                    int best = tail[n];
+                    int head = 0;
+                    for (int i = 1; i <= n; i++) {
+                        head += 1 - bit(forward, i - 1);
+                        if (head + tail[n - i] > best) {
+                            best = head + tail[n - i];
+                            split = i;
+                        }
+                    }
+                    solve(start1, start1 + split, start2, mid);
+                    solve(start1 + split, end1, mid, end2);
+                }
+            }
+
+            for (int s = 0; s < suffix; s++) {
+                addMatch(end1 + s, end2 + s);
+            }
+        }
+
+        /**
+         * Runs the bit-parallel LCS over the revised range and keeps all column vectors. The matches are then read back
+         * from the last column to the first.
+         */
+        private void trace(long[] masks, int words, int start1, int end1, int start2, int end2) {
+            final int m = end2 - start2;
+            final long[] columns = new long[m * words];
+            final long[] v = new long[words];
+            Arrays.fill(v, -1L);
+            for (int j = 0; j < m; j++) {
+                step(v, masks, words, idB[start2 + j]);
+                System.arraycopy(v, 0, columns, j * words, words);
+            }
+
+            final int first = matchCount;
+            int i = end1 - start1;
+            int j = m;
+            while (i > 0 && j > 0) {
+                // a set bit means the LCS does not grow with original element i - 1 in this column
+                if (((columns[(j - 1) * words + ((i - 1) >>> 6)] >>> ((i - 1) & 63)) & 1L) != 0) {
+                    i--;
+                } else if (a[start1 + i - 1] == b[start2 + j - 1]) {
+                    i--;
+                    j--;
+                    addMatch(start1 + i, start2 + j);
+                } else {
+                    j--;
+                }
+            }
+            reverseMatches(first);
+        }
+
+        /**
+         * Runs the bit-parallel LCS over the revised range and returns the last column vector. In reverse mode the
+         * masks have to be built reversed as well.
+         */
+        private long[] run(long[] masks, int words, int start2, int end2, boolean reverse) {
+            final long[] v = new long[words];
+            Arrays.fill(v, -1L);
+            for (int j = start2; j < end2; j++) {
+                step(v, masks, words, idB[reverse ? end2 - 1 - (j - start2) : j]);
+            }
+            return v;
+        }
+
+        /**
+         * One column of the LCS table: V' = (V + (V &amp; M)) | (V &amp; ~M), with the carry propagated over all words.
+         */
+        private void step(long[] v, long[] masks, int words, int id) {
+            final int slot = id < 0 ? -1 : slotOf[id];
+            if (slot < 0) {
+                // no match in this column, V stays the same
+                return;
+            }
+            final int base = slot * words;
+            long carry = 0;
+            for (int k = 0; k < words; k++) {
+                final long vk = v[k];
+                final long mk = masks[base + k];
+                final long u = vk & mk;
+                final long sum = vk + u + carry;
+                carry = ((vk & u) | ((vk | u) & ~sum)) >>> 63;
+                v[k] = sum | (vk & ~mk);
+            }
+        }
+
+        private int assignSlots(int start1, int end1) {
+            int slots = 0;
+            for (int i = start1; i < end1; i++) {
+                if (slotOf[idA[i]] < 0) {
+                    slotOf[idA[i]] = slots++;
+                }
+            }
+            return slots;
+        }
+
+        private void releaseSlots(int start1, int end1) {
+            for (int i = start1; i < end1; i++) {
+                slotOf[idA[i]] = -1;
+            }
+        }
+
+        private long[] buildMasks(int start1, int end1, int slots, int words, boolean reverse) {
+            final long[] masks = new long[slots * words];
+            for (int i = start1; i < end1; i++) {
+                final int position = reverse ? end1 - 1 - i : i - start1;
+                masks[slotOf[idA[i]] * words + (position >>> 6)] |= 1L << (position & 63);
+            }
+            return masks;
+        }
+
+        private static int bit(long[] v, int position) {
+            return (int) (v[position >>> 6] >>> (position & 63)) & 1;
+        }
+
+        /**
+         * Too many distinct symbols for the masks, the region is diffed by Myers instead.
+         */
+        private void fallback(int start1, int end1, int start2, int end2) throws DiffException {
+            final List<Integer> original = new ArrayList<>(end1 - start1);
+            for (int i = start1; i < end1; i++) {
+                original.add(a[i]);
+            }
+            final List<Integer> revised = new ArrayList<>(end2 - start2);
+            for (int j = start2; j < end2; j++) {
+                revised.add(b[j]);
+            }
+            int i = start1;
+            int j = start2;
+            for (Change change : new MyersDiffWithLinearSpace<Integer>().diff(original, revised)) {
+                while (i < start1 + change.startOriginal) {
+                    addMatch(i++, j++);
+                }
+                i = start1 + change.endOriginal;
+                j = start2 + change.endRevised;
+            }
+            while (i < end1) {
+                addMatch(i++, j++);
+            }
+        }
+
+        private void addMatch(int i, int j) {
+            if (2 * matchCount + 2 > matches.length) {
+                matches = Arrays.copyOf(matches, matches.length * 2);
+            }
+            matches[2 * matchCount] = i;
+            matches[2 * matchCount + 1] = j;
+            matchCount++;
+        }
+
+        private void reverseMatches(int from) {
+            for (int lo = from, hi = matchCount - 1; lo < hi; lo++, hi--) {
+                final int i = matches[2 * lo];
+                final int j = matches[2 * lo + 1];
+                matches[2 * lo] = matches[2 * hi];
+                matches[2 * lo + 1] = matches[2 * hi + 1];
+                matches[2 * hi] = i;
+                matches[2 * hi + 1] = j;
+            }
+        }
+
+        /**
+         * Every gap between two consecutive matches is one change.
+         */
+        List<Change> toChanges() {
+            final List<Change> changes = new ArrayList<>();
+            int i = 0;
+            int j = 0;
+            for (int p = 0; p <= matchCount; p++) {
+                final int nextI = p < matchCount ? matches[2 * p] : a.length;
+                final int nextJ = p < matchCount ? matches[2 * p + 1] : b.length;
+                if (nextI > i || nextJ > j) {
+                    changes.add(Changes.of(i, nextI, j, nextJ));
+                }
+                i = nextI + 1;
+                j = nextJ + 1;
+            }
+            return changes;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.algorithm.lcs;
+
+import com.github.difflib.algorithm.Change;
+import com.github.difflib.algorithm.Changes;
+import com.github.difflib.algorithm.DiffAlgorithm;
+import com.github.difflib.algorithm.DiffBudget;
+import com.github.difflib.algorithm.DiffException;
+import com.github.difflib.algorithm.Mismatch;
+import com.github.difflib.algorithm.SymbolDiffAlgorithm;
+import com.github.difflib.algorithm.SymbolTable;
+import com.github.difflib.algorithm.myers.MyersDiffWithLinearSpace;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Hunt–Szymanski algorithm. For every element of the original sequence the matching positions of the revised sequence
+ * are visited and the threshold array of the longest common subsequence is updated by binary search. The runtime is
+ * O((r + n) log n) with r the number of matching pairs, independent of the number of differences. For large, mostly
+ * rewritten inputs with few matching pairs this is much faster than Myers, whose runtime grows with the edit distance.
+ * <p>
+ * Inputs with many repeated elements have a huge number of matching pairs. If there are more than
+ * {@code maxMatchesPerElement} pairs per element of both sequences, the fallback algorithm
+ * ({@link MyersDiffWithLinearSpace} by default) is used instead.
+ */
+public final class HuntSzymanskiDiff<T> implements DiffAlgorithm<T>, SymbolDiffAlgorithm {
+
+    public static final int DEFAULT_MAX_MATCHES_PER_ELEMENT = 16;
+
+    private final DiffAlgorithm<T> fallback;
+    private final int maxMatchesPerElement;
+
+    public HuntSzymanskiDiff() {
+        this(new MyersDiffWithLinearSpace<>(), DEFAULT_MAX_MATCHES_PER_ELEMENT);
+    }
+
+    /**
+     * @param fallback             algorithm used if the inputs have too many matching pairs. Must not be {@code null}.
+     * @param maxMatchesPerElement maximum number of matching pairs per element of both sequences
+     */
+    public HuntSzymanskiDiff(DiffAlgorithm<T> fallback, int maxMatchesPerElement) {
+        Objects.requireNonNull(fallback, "fallback must not be null");
+        if (maxMatchesPerElement < 1) {
+            throw new IllegalArgumentException("maxMatchesPerElement must be positive");
+        }
+        this.fallback = fallback;
+        this.maxMatchesPerElement = maxMatchesPerElement;
+    }
+
+    @Override
+    public boolean comparesByEquals() {
+        return true;
+    }
+
+    @Override
+    public List<Change> diff(final List<T> original, final List<T> revised) throws DiffException {
+        Objects.requireNonNull(original, "original list must not be null");
+        Objects.requireNonNull(revised, "revised list must not be null");
+
+        SymbolTable<T> table = new SymbolTable<>(original.size() + revised.size());
+        final int[] a = table.intern(original);
+        final int[] b = table.intern(revised);
+        return diff(a, b, table.size(), original, revised);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The fallback gets the symbols, as {@link Integer} elements if it is no {@link SymbolDiffAlgorithm}.
+     */
+    @Override
+    public List<Change> diff(final int[] original, final int[] revised) throws DiffException {
+        Objects.requireNonNull(original, "original sequence must not be null");
+        Objects.requireNonNull(revised, "revised sequence must not be null");
+
+        final int[][] symbols = SymbolTable.compact(original, revised);
+        return diff(symbols[0], symbols[1], original.length + revised.length, null, null);
+    }
+
+    /**
+     * Diffs the interned sequences. The fallback gets the elements if they are given, otherwise the symbols.
+     */
+    private List<Change> diff(final int[] a, final int[] b, final int symbols, final List<T> original,
+                              final List<T> revised) throws DiffException {
+        final int prefix = Mismatch.commonPrefix(a, 0, b, 0, Math.min(a.length, b.length));
+        final int suffix = Mismatch.commonSuffix(a, a.length, b, b.length, Math.min(a.length, b.length) - prefix);
+        final int end1 = a.length - suffix;
+        final int end2 = b.length - suffix;
+        final List<Change> changes = new ArrayList<>();
+        if (prefix == end1 || prefix == end2) {
+            if (prefix < end1 || prefix < end2) {
+                changes.add(Changes.of(prefix, end1, prefix, end2));
+            }
+            return changes;
+        }
+
+        // occurrences of each symbol in the revised region, chained in descending order
+        final int[] head = new int[symbols];
+        final int[] count = new int[symbols];
+        final int[] next = new int[end2 - prefix];
+        Arrays.fill(head, -1);
+        for (int j = prefix; j < end2; j++) {
+            next[j - prefix] = head[b[j]];
+            head[b[j]] = j;
+            count[b[j]]++;
+        }
+        long pairs = 0;
+        for (int i = prefix; i < end1; i++) {
+            pairs += count[a[i]];
+        }
+        if (pairs > (long) maxMatchesPerElement * (end1 - prefix + end2 - prefix)) {
+            Changes.addShifted(changes, original == null
+                    ? SymbolDiffAlgorithm.diffSymbols(fallback, Arrays.copyOfRange(a, prefix, end1),
+                            Arrays.copyOfRange(b, prefix, end2), DiffBudget.unlimited())
+                    : fallback.diff(original.subList(prefix, end1), revised.subList(prefix, end2)), prefix, prefix);
+            return changes;
+        }
+
+        final Matches matches = new Matches(Math.min(end1 - prefix, end2 - prefix));
+        for (int i = prefix; i < end1; i++) {
+            // positions are visited in descending order, so the threshold index found can only decrease
+            int hi = matches.length;
+            for (int j = head[a[i]]; j != -1; j = next[j - prefix]) {
+                final int k = matches.search(j, hi);
+                if (k == matches.length || j < matches.threshold[k]) {
+                    matches.set(k, i, j);
+                }
+                hi = k;
+            }
+        }
+
+        int i = prefix;
+        int j = prefix;
+        final int[] lcs = matches.path();
+        for (int p = 0; p <= lcs.length / 2; p++) {
+            final int nextI = p < lcs.length / 2 ? lcs[2 * p] : end1;
+            final int nextJ = p < lcs.length / 2 ? lcs[2 * p + 1] : end2;
+            if (nextI > i || nextJ > j) {
+                changes.add(Changes.of(i, nextI, j, nextJ));
+            }
+            i = nextI + 1;
+            j = nextJ + 1;
+        }
+        return changes;
+    }
+
+    /**
+     * The threshold array: {@code threshold[k]} is the smallest revised position ending a common subsequence of length
+     * {@code k + 1}, {@code link[k]} the node of that position. Nodes are kept in parallel int arrays and chained to
+     * their predecessor, so the subsequence can be read backwards from the last threshold.
+     */
+    private static final class Matches {
+
+        final int[] threshold;
+        final int[] link;
+        int length;
+        private int[] nodeI = new int[64];
+        private int[] nodeJ = new int[64];
+        private int[] nodePrev = new int[64];
+        private int nodes;
+
+        Matches(int maxLength) {
+            threshold = new int[maxLength];
+            link = new int[maxLength];
+        }
+
+        /**
+         * @return the smallest index below {@code hi} whose threshold is not smaller than {@code j}, or {@code hi}
+         */
+        int search(int j, int hi) {
+            int lo = 0;
+            int high = hi;
+            while (lo < high) {
+                final int mid = (lo + high) >>> 1;
+                if (threshold[mid] < j) {
+                    lo = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return lo;
+        }
+
+        void set(int k, int i, int j) {
+            if (nodes == nodeI.length) {
+                nodeI = Arrays.copyOf(nodeI, nodes * 2);
+                nodeJ = Arrays.copyOf(nodeJ, nodes * 2);
+                nodePrev = Arrays.copyOf(nodePrev, nodes * 2);
+            }
+            nodeI[nodes] = i;
+            nodeJ[nodes] = j;
+            nodePrev[nodes] = k == 0 ? -1 : link[k - 1];
+            threshold[k] = j;
+            link[k] = nodes++;
+            if (k == length) {
+                length++;
+            }
+        }
+
+        /**
+         * @return the positions of the longest common subsequence as pairs of original and revised index, ascending
+         */
+        int[] path() {
+            final int[] path = new int[2 * length];
+            int node = length == 0 ? -1 : link[length - 1];
+            for (int p = length - 1; p >= 0; p--) {
+                path[2 * p] = nodeI[node];
+                path[2 * p + 1] = nodeJ[node];
+                node = nodePrev[node];
+            }
+            return path;
+        }
+    }
+}
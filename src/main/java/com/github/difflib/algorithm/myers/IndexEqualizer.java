@@ -0,0 +1,104 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.algorithm.myers;
+
+import com.github.difflib.algorithm.Mismatch;
+import com.github.difflib.algorithm.SymbolTable;
+
+import java.util.List;
+import java.util.function.BiPredicate;
+
+/**
+ * Compares the element at an index of the original sequence with the element at an index of the revised sequence.
+ */
+@FunctionalInterface
+interface IndexEqualizer {
+
+    boolean test(int originalIndex, int revisedIndex);
+
+    /**
+     * @return the number of equal elements starting at both indexes, at most {@code length}
+     */
+    default int snake(int originalIndex, int revisedIndex, int length) {
+        int i = 0;
+        while (i < length && test(originalIndex + i, revisedIndex + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return the number of equal elements before both (exclusive) ends, at most {@code length}
+     */
+    default int snakeBackward(int originalEnd, int revisedEnd, int length) {
+        int i = 0;
+        while (i < length && test(originalEnd - 1 - i, revisedEnd - 1 - i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Interns both sequences, so that comparing two elements is a plain int comparison.
+     */
+    static <T> IndexEqualizer interned(List<T> original, List<T> revised) {
+        final int[][] ids = SymbolTable.intern(original, revised);
+        return of(ids[0], ids[1]);
+    }
+
+    /**
+     * Compares already interned sequences.
+     */
+    static IndexEqualizer of(int[] original, int[] revised) {
+        return new Interned(original, revised);
+    }
+
+    /**
+     * Compares the elements of both sequences using the given equalizer.
+     */
+    static <T> IndexEqualizer of(List<T> original, List<T> revised, BiPredicate<T, T> equalizer) {
+        return (i, j) -> equalizer.test(original.get(i), revised.get(j));
+    }
+
+    /**
+     * Interned sequences are compared many elements at a time by {@link Mismatch}.
+     */
+    final class Interned implements IndexEqualizer {
+
+        private final int[] original;
+        private final int[] revised;
+
+        Interned(int[] original, int[] revised) {
+            this.original = original;
+            this.revised = revised;
+        }
+
+        @Override
+        public boolean test(int originalIndex, int revisedIndex) {
+            return original[originalIndex] == revised[revisedIndex];
+        }
+
+        @Override
+        public int snake(int originalIndex, int revisedIndex, int length) {
+            return Mismatch.commonPrefix(original, originalIndex, revised, revisedIndex, length);
+        }
+
+        @Override
+        public int snakeBackward(int originalEnd, int revisedEnd, int length) {
+            return Mismatch.commonSuffix(original, originalEnd, revised, revisedEnd, length);
+        }
+    }
+}
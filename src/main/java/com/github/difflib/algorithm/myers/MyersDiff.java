@@ -20,32 +20,80 @@ limitations under the License.
 package com.github.difflib.algorithm.myers;
 
 import com.github.difflib.algorithm.Change;
+import com.github.difflib.algorithm.Changes;
 import com.github.difflib.algorithm.DiffAlgorithm;
+import com.github.difflib.algorithm.DiffBudget;
+import com.github.difflib.algorithm.DiffBudgetExceededException;
 import com.github.difflib.algorithm.DiffException;
 import com.github.difflib.algorithm.DifferentiationFailedException;
-import com.github.difflib.patch.DeltaType;
-import com.github.difflib.patch.Patch;
+import com.github.difflib.algorithm.SymbolDiffAlgorithm;
+import com.github.difflib.algorithm.SymbolTable;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.BiPredicate;
 
 /**
  * A clean-room implementation of Eugene Myers greedy differencing algorithm.
+ * <p>
+ * Without a custom equalizer both sequences are interned first (see {@link SymbolTable}), so the inner loop only
+ * compares ints instead of calling {@link Object#equals(Object)}.
+ * <p>
+ * Optionally the edit cost can be bounded, similar to the {@code --speed-large-files} option of GNU diff. If no path
+ * is found within the given number of edits, the diagonal reaching furthest is taken as if it was part of the path and
+ * the search continues from its end. The result is still a valid script, but not necessarily a minimal one. Time and
+ * memory per step are bounded by the cost limit, so almost completely different inputs no longer degenerate to
+ * O(N*M).
  */
-public final class MyersDiff<T> implements DiffAlgorithm<T> {
+public final class MyersDiff<T> implements DiffAlgorithm<T>, SymbolDiffAlgorithm {
 
     private final BiPredicate<T, T> DEFAULT_EQUALIZER = Object::equals;
     private final BiPredicate<T, T> equalizer;
+    private final int costLimit;
 
     public MyersDiff() {
-        equalizer = DEFAULT_EQUALIZER;
+        this.equalizer = DEFAULT_EQUALIZER;
+        this.costLimit = Integer.MAX_VALUE;
     }
 
     public MyersDiff(final BiPredicate<T, T> equalizer) {
+        this(equalizer, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a non minimal diff with bounded edit cost.
+     *
+     * @param costLimit number of edits after which the furthest reaching diagonal is taken. Must be positive.
+     */
+    public MyersDiff(final int costLimit) {
+        if (costLimit < 1) {
+            throw new IllegalArgumentException("costLimit must be positive");
+        }
+        this.equalizer = DEFAULT_EQUALIZER;
+        this.costLimit = costLimit;
+    }
+
+    /**
+     * Creates a non minimal diff with bounded edit cost and a custom equalizer.
+     *
+     * @param equalizer the comparison of original and revised elements. Must not be {@code null}.
+     * @param costLimit number of edits after which the furthest reaching diagonal is taken. Must be positive.
+     */
+    public MyersDiff(final BiPredicate<T, T> equalizer, final int costLimit) {
         Objects.requireNonNull(equalizer, "equalizer must not be null");
+        if (costLimit < 1) {
+            throw new IllegalArgumentException("costLimit must be positive");
+        }
         this.equalizer = equalizer;
+        this.costLimit = costLimit;
+    }
+
+    @Override
+    public boolean comparesByEquals() {
+        return equalizer == DEFAULT_EQUALIZER;
     }
 
     /**
@@ -55,132 +103,283 @@ public final class MyersDiff<T> implements DiffAlgorithm<T> {
      */
     @Override
     public List<Change> diff(final List<T> original, final List<T> revised) throws DiffException {
+        return diff(original, revised, DiffBudget.unlimited());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the budget is exhausted in best effort mode, the remaining part is reported as one change after the furthest
+     * reaching diagonal.
+     */
+    @Override
+    public List<Change> diff(final List<T> original, final List<T> revised, final DiffBudget budget)
+            throws DiffException {
         Objects.requireNonNull(original, "original list must not be null");
         Objects.requireNonNull(revised, "revised list must not be null");
+        Objects.requireNonNull(budget, "budget must not be null");
+
+        final IndexEqualizer eq = equalizer == DEFAULT_EQUALIZER
+                ? IndexEqualizer.interned(original, revised)
+                : IndexEqualizer.of(original, revised, equalizer);
+        return diff(eq, original.size(), revised.size(), budget);
+    }
+
+    @Override
+    public List<Change> diff(final int[] original, final int[] revised) throws DiffException {
+        return diff(original, revised, DiffBudget.unlimited());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the budget is exhausted in best effort mode, the remaining part is reported as one change after the furthest
+     * reaching diagonal.
+     */
+    @Override
+    public List<Change> diff(final int[] original, final int[] revised, final DiffBudget budget)
+            throws DiffException {
+        Objects.requireNonNull(original, "original sequence must not be null");
+        Objects.requireNonNull(revised, "revised sequence must not be null");
+        Objects.requireNonNull(budget, "budget must not be null");
+
+        return diff(IndexEqualizer.of(original, revised), original.length, revised.length, budget);
+    }
+
+    private List<Change> diff(final IndexEqualizer eq, final int N, final int M, final DiffBudget budget)
+            throws DiffException {
+        Trace trace = buildPath(eq, budget, 0, 0, N, M);
+        List<Change> changes = buildRevision(trace, 0, 0);
+        if (trace.endI == N && trace.endJ == M) {
+            return changes;
+        }
+
+        // cost limit reached, continue from the end of the partial path. The pieces are joined in ascending order.
+        Collections.reverse(changes);
+        int startI = trace.endI;
+        int startJ = trace.endJ;
+        while (startI < N || startJ < M) {
+            if (trace.exhausted) {
+                // best effort, the rest is one change
+                appendChange(changes, Changes.of(startI, N, startJ, M));
+                break;
+            }
+            trace = buildPath(eq, budget, startI, startJ, N - startI, M - startJ);
+            List<Change> part = buildRevision(trace, startI, startJ);
+            for (int p = part.size() - 1; p >= 0; p--) {
+                appendChange(changes, part.get(p));
+            }
+            startI += trace.endI;
+            startJ += trace.endJ;
+        }
+        Collections.reverse(changes);
+        return changes;
+    }
 
-        PathNode path = buildPath(original, revised);
-        return buildRevision(path, original, revised);
+    /**
+     * Appends a change to changes in ascending order, merging it with the last one if both are adjacent.
+     */
+    private static void appendChange(List<Change> changes, Change change) {
+        final Change last = changes.isEmpty() ? null : changes.get(changes.size() - 1);
+        if (last != null && last.endOriginal == change.startOriginal && last.endRevised == change.startRevised) {
+            changes.set(changes.size() - 1,
+                    Changes.of(last.startOriginal, change.endOriginal, last.startRevised, change.endRevised));
+        } else {
+            changes.add(change);
+        }
     }
 
     /**
      * Computes the minimum diffpath that expresses de differences between the original and revised sequences, according
      * to Gene Myers differencing algorithm.
+     * <p>
+     * Only the furthest reaching position of each diagonal is kept in a plain {@code int[]}. After each round d the
+     * positions of the diagonals -d..d are appended to the trace, which is all that is needed to rebuild the path
+     * afterwards. The trace grows with O(D^2), for very large differences use {@link MyersDiffWithLinearSpace}.
+     * <p>
+     * If the cost limit is reached, the path ends at the furthest reaching position of the last round instead of the
+     * end of both sequences. The same happens if the budget is exhausted in best effort mode, the trace is then marked
+     * as exhausted.
      *
-     * @param orig The original sequence.
-     * @param rev  The revised sequence.
-     * @return A minimum {@link PathNode Path} accross the differences graph.
+     * @param eq     The comparison of original and revised elements.
+     * @param budget The budget to check.
+     * @param startI The start of the compared range of the original sequence.
+     * @param startJ The start of the compared range of the revised sequence.
+     * @param N      The size of the compared range of the original sequence.
+     * @param M      The size of the compared range of the revised sequence.
+     * @return The trace of the furthest reaching positions of all rounds.
      * @throws DifferentiationFailedException if a diff path could not be found.
+     * @throws DiffBudgetExceededException    if the budget is exhausted and not in best effort mode.
      */
-    private PathNode buildPath(final List<T> orig, final List<T> rev)
-            throws DifferentiationFailedException {
-        Objects.requireNonNull(orig, "original sequence is null");
-        Objects.requireNonNull(rev, "revised sequence is null");
-
-        // these are local constants
-        final int N = orig.size();
-        final int M = rev.size();
-
-        final int MAX = N + M + 1;
+    private Trace buildPath(final IndexEqualizer eq, final DiffBudget budget, final int startI, final int startJ,
+                            final int N, final int M) throws DifferentiationFailedException, DiffBudgetExceededException {
+        final int MAX = (int) Math.min(N + M + 1L, costLimit + 1L);
         final int size = 1 + 2 * MAX;
         final int middle = size / 2;
-        final PathNode diagonal[] = new PathNode[size];
-
-        diagonal[middle + 1] = new PathNode(0, -1, true, true, null);
-        for (int d = 0; d < MAX; d++) {
-            for (int k = -d; k <= d; k += 2) {
-                final int kmiddle = middle + k;
-                final int kplus = kmiddle + 1;
-                final int kminus = kmiddle - 1;
-                PathNode prev;
-                int i;
-
-                if ((k == -d) || (k != d && diagonal[kminus].i < diagonal[kplus].i)) {
-                    i = diagonal[kplus].i;
-                    prev = diagonal[kplus];
-                } else {
-                    i = diagonal[kminus].i + 1;
-                    prev = diagonal[kminus];
-                }
+        final int diagonal[] = new int[size];
+        final Trace trace = new Trace();
 
-                diagonal[kminus] = null; // no longer used
+        diagonal[middle + 1] = 0;
+        int completed = -1;
+        try {
+            for (int d = 0; d < MAX; d++) {
+                trace.ensureCapacity(d);
+                for (int k = -d; k <= d; k += 2) {
+                    final int kmiddle = middle + k;
+                    int i;
 
-                int j = i - k;
+                    if ((k == -d) || (k != d && diagonal[kmiddle - 1] < diagonal[kmiddle + 1])) {
+                        i = diagonal[kmiddle + 1];
+                    } else {
+                        i = diagonal[kmiddle - 1] + 1;
+                    }
 
-                PathNode node = new PathNode(i, j, false, false, prev);
+                    int j = i - k;
 
-                while (i < N && j < M && equalizer.test(orig.get(i), rev.get(j))) {
-                    i++;
-                    j++;
-                }
-
-                if (i != node.i) {
-                    node = new PathNode(i, j, true, false, node);
-                }
+                    final int snake = eq.snake(startI + i, startJ + j, Math.min(N - i, M - j));
+                    i += snake;
+                    j += snake;
 
-                diagonal[kmiddle] = node;
+                    diagonal[kmiddle] = i;
+                    trace.add(i);
+                    budget.charge(1 + snake);
 
-                if (i >= N && j >= M) {
-                    return diagonal[kmiddle];
+                    if (i >= N && j >= M) {
+                        trace.end(d, k, N, M);
+                        return trace;
+                    }
                 }
+                completed = d;
+                if (d == costLimit) {
+                    return furthestReaching(trace, d, N, M);
+                }
+            }
+        } catch (DiffBudgetExceededException e) {
+            if (!budget.isBestEffort()) {
+                throw e;
+            }
+            trace.exhausted = true;
+            if (completed < 0) {
+                trace.end(0, 0, 0, 0);
+                return trace;
             }
-            diagonal[middle + d - 1] = null;
+            return furthestReaching(trace, completed, N, M);
         }
         // According to Myers, this cannot happen
         throw new DifferentiationFailedException("could not find a diff path");
     }
 
     /**
-     * Constructs a {@link Patch} from a difference path.
+     * Ends the trace at the position of round d that is furthest away from the start and still inside both ranges.
+     */
+    private static Trace furthestReaching(Trace trace, int d, int N, int M) throws DifferentiationFailedException {
+        int bestK = 0;
+        int bestI = -1;
+        int bestDistance = -1;
+        for (int k = -d; k <= d; k += 2) {
+            final int i = trace.get(d, k);
+            final int j = i - k;
+            if (i <= N && j >= 0 && j <= M && i + j > bestDistance) {
+                bestK = k;
+                bestI = i;
+                bestDistance = i + j;
+            }
+        }
+        if (bestI < 0) {
+            throw new DifferentiationFailedException("could not find a diff path");
+        }
+        trace.end(d, bestK, bestI, bestI - bestK);
+        return trace;
+    }
+
+    /**
+     * Constructs the changes from the trace by walking backwards from the end of the path. Consecutive non diagonal
+     * moves between two snakes form one change.
      *
-     * @param actualPath The path.
-     * @param orig       The original sequence.
-     * @param rev        The revised sequence.
-     * @return A {@link Patch} script corresponding to the path.
+     * @param trace  The trace of the furthest reaching positions.
+     * @param startI The start of the compared range of the original sequence, added to all positions.
+     * @param startJ The start of the compared range of the revised sequence, added to all positions.
+     * @return The changes corresponding to the path, in descending order.
      */
-    private List<Change> buildRevision(PathNode actualPath, List<T> orig, List<T> rev) {
-        Objects.requireNonNull(actualPath, "path is null");
-        Objects.requireNonNull(orig, "original sequence is null");
-        Objects.requireNonNull(rev, "revised sequence is null");
+    private List<Change> buildRevision(Trace trace, int startI, int startJ) {
+        Objects.requireNonNull(trace, "trace is null");
 
-        PathNode path = actualPath;
         List<Change> changes = new ArrayList<>();
-        if (path.isSnake()) {
-            path = path.prev;
-        }
-        while (path != null && path.prev != null && path.prev.j >= 0) {
-            if (path.isSnake()) {
-                throw new IllegalStateException("bad diffpath: found snake when looking for diff");
+        int k = trace.k;
+        boolean open = false;
+        int endI = 0;
+        int endJ = 0;
+        for (int d = trace.d; d > 0; d--) {
+            final int iEnd = trace.get(d, k);
+            final int prevK;
+            final int iStart;
+            if (k == -d || (k != d && trace.get(d - 1, k - 1) < trace.get(d - 1, k + 1))) {
+                prevK = k + 1;
+                iStart = trace.get(d - 1, prevK);
+            } else {
+                prevK = k - 1;
+                iStart = trace.get(d - 1, prevK) + 1;
             }
-            int i = path.i;
-            int j = path.j;
-
-            path = path.prev;
-            int ianchor = path.i;
-            int janchor = path.j;
 
-            if (ianchor == i && janchor != j) {
-                changes.add(new Change(DeltaType.INSERT, ianchor, i, janchor, j));
-            } else if (ianchor != i && janchor == j) {
-                changes.add(new Change(DeltaType.DELETE, ianchor, i, janchor, j));
-            } else {
-                changes.add(new Change(DeltaType.CHANGE, ianchor, i, janchor, j));
+            if (open && iEnd > iStart) {
+                changes.add(Changes.of(startI + iEnd, startI + endI, startJ + iEnd - k, startJ + endJ));
+                open = false;
             }
-//            Chunk<T> original = new Chunk<>(ianchor, copyOfRange(orig, ianchor, i));
-//            Chunk<T> revised = new Chunk<>(janchor, copyOfRange(rev, janchor, j));
-//            Delta<T> delta = null;
-//            if (original.size() == 0 && revised.size() != 0) {
-//                delta = new InsertDelta<>(original, revised);
-//            } else if (original.size() > 0 && revised.size() == 0) {
-//                delta = new DeleteDelta<>(original, revised);
-//            } else {
-//                delta = new ChangeDelta<>(original, revised);
-//            }
-//
-//            patch.addDelta(delta);
-            if (path.isSnake()) {
-                path = path.prev;
+            if (!open) {
+                open = true;
+                endI = iStart;
+                endJ = iStart - k;
             }
+            k = prevK;
+        }
+        if (open) {
+            final int i = trace.get(0, 0);
+            changes.add(Changes.of(startI + i, startI + endI, startJ + i, startJ + endJ));
         }
         return changes;
     }
+
+    /**
+     * Furthest reaching positions of all rounds. Round d holds the d + 1 diagonals -d, -d + 2, .., d and starts at
+     * index d * (d + 1) / 2.
+     */
+    private static final class Trace {
+
+        private int[] values = new int[64];
+        private int size;
+        int d;
+        int k;
+        int endI;
+        int endJ;
+        boolean exhausted;
+
+        void ensureCapacity(int round) throws DifferentiationFailedException {
+            final long required = offset(round) + round + 1;
+            if (required > values.length) {
+                if (required > Integer.MAX_VALUE - 8) {
+                    throw new DifferentiationFailedException("diff path too long, use MyersDiffWithLinearSpace instead");
+                }
+                values = Arrays.copyOf(values, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(required, 2L * values.length)));
+            }
+        }
+
+        void end(int round, int diagonal, int i, int j) {
+            d = round;
+            k = diagonal;
+            endI = i;
+            endJ = j;
+        }
+
+        void add(int i) {
+            values[size++] = i;
+        }
+
+        int get(int round, int k) {
+            return values[(int) offset(round) + (k + round) / 2];
+        }
+
+        private static long offset(int round) {
+            return (long) round * (round + 1) / 2;
+        }
+    }
 }
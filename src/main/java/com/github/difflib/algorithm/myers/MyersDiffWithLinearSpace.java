@@ -0,0 +1,286 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.algorithm.myers;
+
+import com.github.difflib.algorithm.Change;
+import com.github.difflib.algorithm.CompactChanges;
+import com.github.difflib.algorithm.DiffAlgorithm;
+import com.github.difflib.algorithm.DiffBudget;
+import com.github.difflib.algorithm.DiffBudgetExceededException;
+import com.github.difflib.algorithm.DiffException;
+import com.github.difflib.algorithm.SymbolDiffAlgorithm;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiPredicate;
+
+/**
+ * Myers differencing algorithm using the linear space refinement of the original paper. Instead of keeping the whole
+ * diffpath in memory, the middle snake of the edit graph is searched and both halves are processed recursively. The
+ * working memory is therefore O(N+M) while the result is still a minimal edit script.
+ * <p>
+ * If a {@link DiffBudget} in best effort mode is exhausted, all ranges not processed yet are reported as one change
+ * each.
+ */
+public final class MyersDiffWithLinearSpace<T> implements DiffAlgorithm<T>, SymbolDiffAlgorithm {
+
+    private final BiPredicate<T, T> DEFAULT_EQUALIZER = Object::equals;
+    private final BiPredicate<T, T> equalizer;
+
+    public MyersDiffWithLinearSpace() {
+        equalizer = DEFAULT_EQUALIZER;
+    }
+
+    public MyersDiffWithLinearSpace(final BiPredicate<T, T> equalizer) {
+        Objects.requireNonNull(equalizer, "equalizer must not be null");
+        this.equalizer = equalizer;
+    }
+
+    @Override
+    public boolean comparesByEquals() {
+        return equalizer == DEFAULT_EQUALIZER;
+    }
+
+    @Override
+    public List<Change> diff(final List<T> original, final List<T> revised) throws DiffException {
+        return diffCompact(original, revised).toList();
+    }
+
+    @Override
+    public List<Change> diff(final List<T> original, final List<T> revised, final DiffBudget budget)
+            throws DiffException {
+        return diffCompact(original, revised, budget).toList();
+    }
+
+    @Override
+    public CompactChanges diffCompact(final List<T> original, final List<T> revised) throws DiffException {
+        return diffCompact(original, revised, DiffBudget.unlimited());
+    }
+
+    private CompactChanges diffCompact(final List<T> original, final List<T> revised, final DiffBudget budget)
+            throws DiffException {
+        Objects.requireNonNull(original, "original list must not be null");
+        Objects.requireNonNull(revised, "revised list must not be null");
+        Objects.requireNonNull(budget, "budget must not be null");
+
+        final IndexEqualizer eq = equalizer == DEFAULT_EQUALIZER
+                ? IndexEqualizer.interned(original, revised)
+                : IndexEqualizer.of(original, revised, equalizer);
+        DiffData data = new DiffData(eq, budget, original.size(), revised.size());
+        buildScript(data, 0, original.size(), 0, revised.size());
+        return data.script;
+    }
+
+    /**
+     * Computes the changes between two sequences of symbols, e.g. ids of a {@link com.github.difflib.algorithm.SymbolTable}
+     * or characters. The equalizer of this instance is not used.
+     *
+     * @param original The original sequence. Must not be {@code null}.
+     * @param revised  The revised sequence. Must not be {@code null}.
+     * @return the changes, in ascending order
+     */
+    @Override
+    public List<Change> diff(final int[] original, final int[] revised) throws DiffException {
+        return diff(original, revised, DiffBudget.unlimited());
+    }
+
+    /**
+     * Computes the changes between two sequences of symbols within the given budget, see {@link #diff(int[], int[])}.
+     *
+     * @param original The original sequence. Must not be {@code null}.
+     * @param revised  The revised sequence. Must not be {@code null}.
+     * @param budget   The budget to check. Must not be {@code null}.
+     * @return the changes, in ascending order
+     */
+    @Override
+    public List<Change> diff(final int[] original, final int[] revised, final DiffBudget budget) throws DiffException {
+        Objects.requireNonNull(original, "original sequence must not be null");
+        Objects.requireNonNull(revised, "revised sequence must not be null");
+        Objects.requireNonNull(budget, "budget must not be null");
+
+        DiffData data = new DiffData(IndexEqualizer.of(original, revised), budget, original.length, revised.length);
+        buildScript(data, 0, original.length, 0, revised.length);
+        return data.script.toList();
+    }
+
+    /**
+     * Computes the changes between the given ranges of both sequences and appends them to the script.
+     */
+    static void buildScript(DiffData data, int fromOriginal, int toOriginal, int fromRevised, int toRevised)
+            throws DiffBudgetExceededException {
+        int start1 = fromOriginal;
+        int end1 = toOriginal;
+        int start2 = fromRevised;
+        int end2 = toRevised;
+        // strip common prefix and suffix, they are never part of a change
+        final int prefix = data.eq.snake(start1, start2, Math.min(end1 - start1, end2 - start2));
+        start1 += prefix;
+        start2 += prefix;
+        final int suffix = data.eq.snakeBackward(end1, end2, Math.min(end1 - start1, end2 - start2));
+        end1 -= suffix;
+        end2 -= suffix;
+
+        if (start1 == end1 && start2 == end2) {
+            return;
+        }
+        if (start1 == end1 || start2 == end2) {
+            data.addChange(start1, end1, start2, end2);
+            return;
+        }
+
+        boolean found = false;
+        if (!data.budget.isExceeded() || !data.budget.isBestEffort()) {
+            try {
+                found = middleSnake(data, start1, end1, start2, end2);
+            } catch (DiffBudgetExceededException e) {
+                if (!data.budget.isBestEffort()) {
+                    throw e;
+                }
+            }
+        }
+        if (!found) {
+            // no commonality at all or best effort
+            data.addChange(start1, end1, start2, end2);
+            return;
+        }
+        final int x = data.splitX;
+        final int y = data.splitY;
+        buildScript(data, start1, x, start2, y);
+        buildScript(data, x, end1, y, end2);
+    }
+
+    /**
+     * Searches the forward and the reverse path simultaneously until they overlap. The overlapping point lies on a
+     * minimal path and is stored as split point in {@code data}.
+     *
+     * @return false if both ranges have nothing in common
+     */
+    static boolean middleSnake(DiffData data, int start1, int end1, int start2, int end2)
+            throws DiffBudgetExceededException {
+        final int n = end1 - start1;
+        final int m = end2 - start2;
+        final int maxD = (n + m + 1) / 2;
+        final int offset = maxD;
+        final int length = 2 * maxD;
+        final int[] vf = data.vforward;
+        final int[] vb = data.vbackward;
+        Arrays.fill(vf, 0, length, -1);
+        Arrays.fill(vb, 0, length, -1);
+        vf[offset + 1] = 0;
+        vb[offset + 1] = 0;
+
+        final int delta = n - m;
+        final boolean front = delta % 2 != 0;
+        int kfstart = 0;
+        int kfend = 0;
+        int kbstart = 0;
+        int kbend = 0;
+
+        for (int d = 0; d < maxD; d++) {
+            for (int k = -d + kfstart; k <= d - kfend; k += 2) {
+                final int kOffset = offset + k;
+                int x;
+                if (k == -d || (k != d && vf[kOffset - 1] < vf[kOffset + 1])) {
+                    x = vf[kOffset + 1];
+                } else {
+                    x = vf[kOffset - 1] + 1;
+                }
+                int y = x - k;
+                final int snake = data.eq.snake(start1 + x, start2 + y, Math.min(n - x, m - y));
+                x += snake;
+                y += snake;
+                vf[kOffset] = x;
+                data.budget.charge(1 + snake);
+                if (x > n) {
+                    kfend += 2;
+                } else if (y > m) {
+                    kfstart += 2;
+                } else if (front) {
+                    final int kbOffset = offset + delta - k;
+                    if (kbOffset >= 0 && kbOffset < length && vb[kbOffset] != -1 && x >= n - vb[kbOffset]) {
+                        data.splitX = start1 + x;
+                        data.splitY = start2 + y;
+                        return true;
+                    }
+                }
+            }
+
+            for (int k = -d + kbstart; k <= d - kbend; k += 2) {
+                final int kOffset = offset + k;
+                int x;
+                if (k == -d || (k != d && vb[kOffset - 1] < vb[kOffset + 1])) {
+                    x = vb[kOffset + 1];
+                } else {
+                    x = vb[kOffset - 1] + 1;
+                }
+                int y = x - k;
+                final int snake = data.eq.snakeBackward(end1 - x, end2 - y, Math.min(n - x, m - y));
+                x += snake;
+                y += snake;
+                vb[kOffset] = x;
+                data.budget.charge(1 + snake);
+                if (x > n) {
+                    kbend += 2;
+                } else if (y > m) {
+                    kbstart += 2;
+                } else if (!front) {
+                    final int kfOffset = offset + delta - k;
+                    if (kfOffset >= 0 && kfOffset < length && vf[kfOffset] != -1) {
+                        final int xf = vf[kfOffset];
+                        final int yf = offset + xf - kfOffset;
+                        if (xf >= n - x) {
+                            data.splitX = start1 + xf;
+                            data.splitY = start2 + yf;
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Working state of one diff run. The diagonal vectors are allocated once and reused by every recursion step.
+     */
+    static final class DiffData {
+
+        final IndexEqualizer eq;
+        final DiffBudget budget;
+        final int[] vforward;
+        final int[] vbackward;
+        final CompactChanges script = new CompactChanges();
+        int splitX;
+        int splitY;
+
+        DiffData(IndexEqualizer eq, DiffBudget budget, int n, int m) {
+            this.eq = eq;
+            this.budget = budget;
+            final int size = n + m + 2;
+            this.vforward = new int[size];
+            this.vbackward = new int[size];
+        }
+
+        /**
+         * Appends a change to the script. Changes are produced in ascending order, so a change directly adjacent to
+         * the last one is merged into it.
+         */
+        void addChange(int start1, int end1, int start2, int end2) {
+            script.append(start1, end1, start2, end2);
+        }
+    }
+}
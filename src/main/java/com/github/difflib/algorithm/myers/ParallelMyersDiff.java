@@ -0,0 +1,170 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.algorithm.myers;
+
+import com.github.difflib.algorithm.Change;
+import com.github.difflib.algorithm.CompactChanges;
+import com.github.difflib.algorithm.DiffAlgorithm;
+import com.github.difflib.algorithm.DiffBudget;
+import com.github.difflib.algorithm.DiffBudgetExceededException;
+import com.github.difflib.algorithm.DiffException;
+import com.github.difflib.algorithm.SymbolDiffAlgorithm;
+import com.github.difflib.algorithm.myers.MyersDiffWithLinearSpace.DiffData;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiPredicate;
+
+/**
+ * Parallel version of {@link MyersDiffWithLinearSpace}. After a middle snake is found, the rectangles before and after
+ * it are independent of each other and are solved as tasks of a {@link ForkJoinPool}. Regions below a size threshold
+ * are processed sequentially. The split points are the same as in the sequential algorithm, so the result is
+ * identical to the one of {@link MyersDiffWithLinearSpace}.
+ * <p>
+ * A custom equalizer is called from several threads at once and therefore has to be thread safe.
+ */
+public final class ParallelMyersDiff<T> implements DiffAlgorithm<T>, SymbolDiffAlgorithm {
+
+    /**
+     * Regions with fewer elements (original and revised together) are not split into further tasks.
+     */
+    public static final int DEFAULT_THRESHOLD = 10_000;
+
+    private final BiPredicate<T, T> DEFAULT_EQUALIZER = Object::equals;
+    private final BiPredicate<T, T> equalizer;
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    /**
+     * Uses the common pool.
+     */
+    public ParallelMyersDiff() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelMyersDiff(final ForkJoinPool pool) {
+        this.equalizer = DEFAULT_EQUALIZER;
+        this.pool = Objects.requireNonNull(pool, "pool must not be null");
+        this.threshold = DEFAULT_THRESHOLD;
+    }
+
+    public ParallelMyersDiff(final BiPredicate<T, T> equalizer, final ForkJoinPool pool) {
+        this(equalizer, pool, DEFAULT_THRESHOLD);
+    }
+
+    ParallelMyersDiff(final BiPredicate<T, T> equalizer, final ForkJoinPool pool, int threshold) {
+        Objects.requireNonNull(equalizer, "equalizer must not be null");
+        Objects.requireNonNull(pool, "pool must not be null");
+        this.equalizer = equalizer;
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public boolean comparesByEquals() {
+        return equalizer == DEFAULT_EQUALIZER;
+    }
+
+    @Override
+    public List<Change> diff(final List<T> original, final List<T> revised) throws DiffException {
+        return diffCompact(original, revised).toList();
+    }
+
+    @Override
+    public CompactChanges diffCompact(final List<T> original, final List<T> revised) throws DiffException {
+        Objects.requireNonNull(original, "original list must not be null");
+        Objects.requireNonNull(revised, "revised list must not be null");
+
+        final IndexEqualizer eq = equalizer == DEFAULT_EQUALIZER
+                ? IndexEqualizer.interned(original, revised)
+                : IndexEqualizer.of(original, revised, equalizer);
+        return pool.invoke(new ScriptTask(eq, threshold, 0, original.size(), 0, revised.size()));
+    }
+
+    @Override
+    public List<Change> diff(final int[] original, final int[] revised) throws DiffException {
+        Objects.requireNonNull(original, "original sequence must not be null");
+        Objects.requireNonNull(revised, "revised sequence must not be null");
+
+        return pool.invoke(new ScriptTask(IndexEqualizer.of(original, revised), threshold,
+                0, original.length, 0, revised.length)).toList();
+    }
+
+    /**
+     * Computes the script of one rectangle of the edit graph.
+     */
+    private static final class ScriptTask extends RecursiveTask<CompactChanges> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient IndexEqualizer eq;
+        private final int threshold;
+        private final int fromOriginal;
+        private final int toOriginal;
+        private final int fromRevised;
+        private final int toRevised;
+
+        ScriptTask(IndexEqualizer eq, int threshold, int fromOriginal, int toOriginal, int fromRevised, int toRevised) {
+            this.eq = eq;
+            this.threshold = threshold;
+            this.fromOriginal = fromOriginal;
+            this.toOriginal = toOriginal;
+            this.fromRevised = fromRevised;
+            this.toRevised = toRevised;
+        }
+
+        @Override
+        protected CompactChanges compute() {
+            int start1 = fromOriginal;
+            int end1 = toOriginal;
+            int start2 = fromRevised;
+            int end2 = toRevised;
+            final int prefix = eq.snake(start1, start2, Math.min(end1 - start1, end2 - start2));
+            start1 += prefix;
+            start2 += prefix;
+            final int suffix = eq.snakeBackward(end1, end2, Math.min(end1 - start1, end2 - start2));
+            end1 -= suffix;
+            end2 -= suffix;
+
+            // the vectors are sized for this region only
+            final DiffData data = new DiffData(eq, DiffBudget.unlimited(), end1 - start1, end2 - start2);
+            try {
+                if (start1 == end1 || start2 == end2 || end1 - start1 + end2 - start2 <= threshold) {
+                    MyersDiffWithLinearSpace.buildScript(data, start1, end1, start2, end2);
+                    return data.script;
+                }
+                if (!MyersDiffWithLinearSpace.middleSnake(data, start1, end1, start2, end2)) {
+                    data.addChange(start1, end1, start2, end2);
+                    return data.script;
+                }
+            } catch (DiffBudgetExceededException e) {
+                // cannot happen with an unlimited budget
+                throw new IllegalStateException(e);
+            }
+
+            final ScriptTask before = new ScriptTask(eq, threshold, start1, data.splitX, start2, data.splitY);
+            final ScriptTask after = new ScriptTask(eq, threshold, data.splitX, end1, data.splitY, end2);
+            before.fork();
+            final CompactChanges afterScript = after.compute();
+            final CompactChanges script = before.join();
+            // only the first change of the second half may touch the last one of the first half
+            script.appendAll(afterScript);
+            return script;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.algorithm.patience;
+
+import com.github.difflib.algorithm.Change;
+import com.github.difflib.algorithm.Changes;
+import com.github.difflib.algorithm.DiffAlgorithm;
+import com.github.difflib.algorithm.DiffBudget;
+import com.github.difflib.algorithm.DiffException;
+import com.github.difflib.algorithm.DifferentiationFailedException;
+import com.github.difflib.algorithm.SymbolDiffAlgorithm;
+import com.github.difflib.algorithm.SymbolTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Pre-pass for any other algorithm. Elements occurring exactly once in the original and once in the revised sequence
+ * are matched, the longest increasing subsequence of those matches is kept as fixed anchors and the regions in between
+ * are given to the delegate one by one. Unlike {@link PatienceDiff} this is done once for the whole input only, the
+ * delegate decides about everything inside a region.
+ * <p>
+ * For large inputs with a few distinctive lines this splits one big problem into many small ones, which is much cheaper
+ * for algorithms with quadratic worst case. Given a {@link ForkJoinPool}, the regions are diffed in parallel; the
+ * delegate is then called from several threads at once and therefore has to be thread safe.
+ */
+public final class AnchoredDiff<T> implements DiffAlgorithm<T>, SymbolDiffAlgorithm {
+
+    /**
+     * Neighbouring regions are given to the same task until their size (original and revised together) reaches this
+     * value.
+     */
+    public static final int DEFAULT_THRESHOLD = 10_000;
+
+    private final DiffAlgorithm<T> delegate;
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    /**
+     * Diffs the regions sequentially.
+     *
+     * @param delegate algorithm used for the regions between the anchors. Must not be {@code null}.
+     */
+    public AnchoredDiff(DiffAlgorithm<T> delegate) {
+        Objects.requireNonNull(delegate, "delegate must not be null");
+        this.delegate = delegate;
+        this.pool = null;
+        this.threshold = DEFAULT_THRESHOLD;
+    }
+
+    /**
+     * Diffs the regions in parallel.
+     *
+     * @param delegate algorithm used for the regions between the anchors. Must not be {@code null}.
+     * @param pool     the pool to run the regions in. Must not be {@code null}.
+     */
+    public AnchoredDiff(DiffAlgorithm<T> delegate, ForkJoinPool pool) {
+        this(delegate, pool, DEFAULT_THRESHOLD);
+    }
+
+    AnchoredDiff(DiffAlgorithm<T> delegate, ForkJoinPool pool, int threshold) {
+        Objects.requireNonNull(delegate, "delegate must not be null");
+        Objects.requireNonNull(pool, "pool must not be null");
+        this.delegate = delegate;
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public boolean comparesByEquals() {
+        return true;
+    }
+
+    @Override
+    public List<Change> diff(final List<T> original, final List<T> revised) throws DiffException {
+        Objects.requireNonNull(original, "original list must not be null");
+        Objects.requireNonNull(revised, "revised list must not be null");
+
+        SymbolTable<T> table = new SymbolTable<>(original.size() + revised.size());
+        final int[] orig = table.intern(original);
+        final int[] rev = table.intern(revised);
+        return diff(orig, rev, table.size(), original, revised);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The delegate gets the symbols of the regions, as {@link Integer} elements if it is no
+     * {@link SymbolDiffAlgorithm}.
+     */
+    @Override
+    public List<Change> diff(final int[] original, final int[] revised) throws DiffException {
+        Objects.requireNonNull(original, "original sequence must not be null");
+        Objects.requireNonNull(revised, "revised sequence must not be null");
+
+        final int[][] symbols = SymbolTable.compact(original, revised);
+        return diff(symbols[0], symbols[1], original.length + revised.length, null, null);
+    }
+
+    /**
+     * Diffs the interned sequences. The delegate gets the regions of the elements if they are given, otherwise the
+     * regions of the symbols.
+     */
+    private List<Change> diff(final int[] orig, final int[] rev, final int symbols, final List<T> original,
+                              final List<T> revised) throws DiffException {
+        final UniqueAnchors anchors = new UniqueAnchors(symbols);
+        final int count = anchors.find(orig, 0, orig.length, rev, 0, rev.length);
+        if (count == 0) {
+            return original == null
+                    ? SymbolDiffAlgorithm.diffSymbols(delegate, orig, rev, DiffBudget.unlimited())
+                    : delegate.diff(original, revised);
+        }
+
+        // the regions between the anchors, grouped into batches of about threshold elements
+        final List<List<int[]>> batches = new ArrayList<>();
+        List<int[]> batch = new ArrayList<>();
+        int batchSize = 0;
+        int prev1 = 0;
+        int prev2 = 0;
+        for (int i = 0; i <= count; i++) {
+            final int end1 = i < count ? anchors.original[i] : orig.length;
+            final int end2 = i < count ? anchors.revised[i] : rev.length;
+            if (prev1 < end1 || prev2 < end2) {
+                batch.add(new int[]{prev1, end1, prev2, end2});
+                batchSize += end1 - prev1 + end2 - prev2;
+                if (batchSize >= threshold) {
+                    batches.add(batch);
+                    batch = new ArrayList<>();
+                    batchSize = 0;
+                }
+            }
+            prev1 = end1 + 1;
+            prev2 = end2 + 1;
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+
+        final List<Change> changes = new ArrayList<>();
+        if (pool == null || batches.size() < 2) {
+            for (List<int[]> regions : batches) {
+                changes.addAll(diffRegions(orig, rev, original, revised, regions));
+            }
+        } else {
+            final List<ForkJoinTask<List<Change>>> tasks = new ArrayList<>(batches.size() - 1);
+            for (List<int[]> regions : batches.subList(0, batches.size() - 1)) {
+                tasks.add(pool.submit(() -> diffRegions(orig, rev, original, revised, regions)));
+            }
+            final List<Change> last = diffRegions(orig, rev, original, revised, batches.get(batches.size() - 1));
+            for (ForkJoinTask<List<Change>> task : tasks) {
+                changes.addAll(join(task));
+            }
+            changes.addAll(last);
+        }
+
+        changes.sort(Comparator.<Change>comparingInt(c -> c.startOriginal).thenComparingInt(c -> c.startRevised));
+        return changes;
+    }
+
+    /**
+     * Computes the changes of the given regions, shifted to the positions in the whole sequences. Regions are separated
+     * by at least one anchor, so their changes are never adjacent.
+     */
+    private List<Change> diffRegions(int[] orig, int[] rev, List<T> original, List<T> revised, List<int[]> regions)
+            throws DiffException {
+        final List<Change> changes = new ArrayList<>();
+        for (int[] region : regions) {
+            final int start1 = region[0];
+            final int end1 = region[1];
+            final int start2 = region[2];
+            final int end2 = region[3];
+            if (start1 == end1 || start2 == end2) {
+                changes.add(Changes.of(start1, end1, start2, end2));
+                continue;
+            }
+            Changes.addShifted(changes, original == null
+                    ? SymbolDiffAlgorithm.diffSymbols(delegate, Arrays.copyOfRange(orig, start1, end1),
+                            Arrays.copyOfRange(rev, start2, end2), DiffBudget.unlimited())
+                    : delegate.diff(original.subList(start1, end1), revised.subList(start2, end2)), start1, start2);
+        }
+        return changes;
+    }
+
+    private static List<Change> join(ForkJoinTask<List<Change>> task) throws DiffException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DifferentiationFailedException("diff interrupted");
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof DiffException) {
+                throw (DiffException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
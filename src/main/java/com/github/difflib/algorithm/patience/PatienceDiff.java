@@ -0,0 +1,144 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.algorithm.patience;
+
+import com.github.difflib.algorithm.Change;
+import com.github.difflib.algorithm.Changes;
+import com.github.difflib.algorithm.DiffAlgorithm;
+import com.github.difflib.algorithm.DiffBudget;
+import com.github.difflib.algorithm.DiffException;
+import com.github.difflib.algorithm.Mismatch;
+import com.github.difflib.algorithm.SymbolDiffAlgorithm;
+import com.github.difflib.algorithm.SymbolTable;
+import com.github.difflib.algorithm.myers.MyersDiff;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Patience diff. Elements occurring exactly once in the original and once in the revised sequence are used as anchors.
+ * The longest increasing subsequence of those anchors is kept and the regions in between are processed the same way.
+ * Regions without any unique element are given to the fallback algorithm ({@link MyersDiff} by default).
+ * <p>
+ * Repeated lines like braces or blank lines never become anchors, so the result follows the unique lines of a text,
+ * which is usually what a reader expects.
+ */
+public final class PatienceDiff<T> implements DiffAlgorithm<T>, SymbolDiffAlgorithm {
+
+    private final DiffAlgorithm<T> fallback;
+
+    public PatienceDiff() {
+        this(new MyersDiff<>());
+    }
+
+    /**
+     * @param fallback algorithm used for regions without unique elements. Must not be {@code null}.
+     */
+    public PatienceDiff(DiffAlgorithm<T> fallback) {
+        Objects.requireNonNull(fallback, "fallback must not be null");
+        this.fallback = fallback;
+    }
+
+    @Override
+    public boolean comparesByEquals() {
+        return true;
+    }
+
+    @Override
+    public List<Change> diff(final List<T> original, final List<T> revised) throws DiffException {
+        Objects.requireNonNull(original, "original list must not be null");
+        Objects.requireNonNull(revised, "revised list must not be null");
+
+        SymbolTable<T> table = new SymbolTable<>(original.size() + revised.size());
+        final int[] orig = table.intern(original);
+        final int[] rev = table.intern(revised);
+        return diff(orig, rev, table.size(), original, revised);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The fallback gets the symbols of its regions, as {@link Integer} elements if it is no {@link SymbolDiffAlgorithm}.
+     */
+    @Override
+    public List<Change> diff(final int[] original, final int[] revised) throws DiffException {
+        Objects.requireNonNull(original, "original sequence must not be null");
+        Objects.requireNonNull(revised, "revised sequence must not be null");
+
+        final int[][] symbols = SymbolTable.compact(original, revised);
+        return diff(symbols[0], symbols[1], original.length + revised.length, null, null);
+    }
+
+    /**
+     * Diffs the interned sequences. The fallback gets the regions of the elements if they are given, otherwise the
+     * regions of the symbols.
+     */
+    private List<Change> diff(final int[] orig, final int[] rev, final int symbols, final List<T> original,
+                              final List<T> revised) throws DiffException {
+        final UniqueAnchors anchors = new UniqueAnchors(symbols);
+        final List<Change> changes = new ArrayList<>();
+
+        // regions are processed using an explicit stack to avoid deep recursion on degenerated input
+        Deque<int[]> regions = new ArrayDeque<>();
+        regions.push(new int[]{0, orig.length, 0, rev.length});
+        while (!regions.isEmpty()) {
+            final int[] region = regions.pop();
+            int start1 = region[0];
+            int end1 = region[1];
+            int start2 = region[2];
+            int end2 = region[3];
+            final int prefix = Mismatch.commonPrefix(orig, start1, rev, start2, Math.min(end1 - start1, end2 - start2));
+            start1 += prefix;
+            start2 += prefix;
+            final int suffix = Mismatch.commonSuffix(orig, end1, rev, end2, Math.min(end1 - start1, end2 - start2));
+            end1 -= suffix;
+            end2 -= suffix;
+            if (start1 == end1 && start2 == end2) {
+                continue;
+            }
+            if (start1 == end1 || start2 == end2) {
+                changes.add(Changes.of(start1, end1, start2, end2));
+                continue;
+            }
+
+            final int count = anchors.find(orig, start1, end1, rev, start2, end2);
+            if (count == 0) {
+                Changes.addShifted(changes, original == null
+                        ? SymbolDiffAlgorithm.diffSymbols(fallback, Arrays.copyOfRange(orig, start1, end1),
+                                Arrays.copyOfRange(rev, start2, end2), DiffBudget.unlimited())
+                        : fallback.diff(original.subList(start1, end1), revised.subList(start2, end2)), start1, start2);
+                continue;
+            }
+
+            int prev1 = start1;
+            int prev2 = start2;
+            for (int i = 0; i < count; i++) {
+                regions.push(new int[]{prev1, anchors.original[i], prev2, anchors.revised[i]});
+                prev1 = anchors.original[i] + 1;
+                prev2 = anchors.revised[i] + 1;
+            }
+            regions.push(new int[]{prev1, end1, prev2, end2});
+        }
+
+        changes.sort(Comparator.<Change>comparingInt(c -> c.startOriginal).thenComparingInt(c -> c.startRevised));
+        return changes;
+    }
+}
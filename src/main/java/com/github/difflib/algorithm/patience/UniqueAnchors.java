@@ -0,0 +1,114 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.algorithm.patience;
+
+import java.util.Arrays;
+
+/**
+ * Finds the unique common elements of two regions and their longest increasing subsequence. The counting arrays are
+ * indexed by symbol id and reset after each region, so they are allocated only once per diff.
+ */
+final class UniqueAnchors {
+
+    private final int[] countOriginal;
+    private final int[] countRevised;
+    private final int[] positionRevised;
+    int[] original = new int[16];
+    int[] revised = new int[16];
+
+    UniqueAnchors(int symbols) {
+        countOriginal = new int[symbols];
+        countRevised = new int[symbols];
+        positionRevised = new int[symbols];
+    }
+
+    /**
+     * @return the number of anchors, stored in ascending order in {@link #original} and {@link #revised}
+     */
+    int find(int[] orig, int start1, int end1, int[] rev, int start2, int end2) {
+        for (int i = start1; i < end1; i++) {
+            countOriginal[orig[i]]++;
+        }
+        for (int j = start2; j < end2; j++) {
+            countRevised[rev[j]]++;
+            positionRevised[rev[j]] = j;
+        }
+
+        // unique pairs ordered by their original position
+        int pairs = 0;
+        int[] pairOriginal = new int[16];
+        int[] pairRevised = new int[16];
+        for (int i = start1; i < end1; i++) {
+            final int id = orig[i];
+            if (countOriginal[id] == 1 && countRevised[id] == 1) {
+                if (pairs == pairOriginal.length) {
+                    pairOriginal = Arrays.copyOf(pairOriginal, pairs * 2);
+                    pairRevised = Arrays.copyOf(pairRevised, pairs * 2);
+                }
+                pairOriginal[pairs] = i;
+                pairRevised[pairs] = positionRevised[id];
+                pairs++;
+            }
+        }
+
+        for (int i = start1; i < end1; i++) {
+            countOriginal[orig[i]] = 0;
+        }
+        for (int j = start2; j < end2; j++) {
+            countRevised[rev[j]] = 0;
+        }
+        if (pairs == 0) {
+            return 0;
+        }
+        return longestIncreasingSubsequence(pairOriginal, pairRevised, pairs);
+    }
+
+    /**
+     * Patience sorting of the pairs by their revised position, O(k log k).
+     */
+    private int longestIncreasingSubsequence(int[] pairOriginal, int[] pairRevised, int pairs) {
+        final int[] tails = new int[pairs];
+        final int[] predecessor = new int[pairs];
+        int length = 0;
+        for (int p = 0; p < pairs; p++) {
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (pairRevised[tails[mid]] < pairRevised[p]) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            predecessor[p] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = p;
+            if (low == length) {
+                length++;
+            }
+        }
+
+        if (original.length < length) {
+            original = new int[length];
+            revised = new int[length];
+        }
+        for (int i = length - 1, p = tails[length - 1]; i >= 0; i--, p = predecessor[p]) {
+            original[i] = pairOriginal[p];
+            revised[i] = pairRevised[p];
+        }
+        return length;
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.binary;
+
+import com.github.difflib.patch.PatchFailedException;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Delta between two byte sequences, a list of instructions either copying a range of the base or inserting literal
+ * bytes. The delta is kept in its compact binary form, which is also what {@link #toByteArray()} returns:
+ * <ul>
+ * <li>the length of the base and of the target, as variable length integers,</li>
+ * <li>per instruction the length shifted left by one with the lowest bit set for a copy,</li>
+ * <li>for a copy the distance of its offset to the end of the previous copy, zigzag encoded,</li>
+ * <li>for an insert the literal bytes.</li>
+ * </ul>
+ * Variable length integers use seven bits per byte, the highest bit marks a following byte.
+ */
+public final class BinaryDelta {
+
+    private final byte[] data;
+    private final int baseLength;
+    private final int targetLength;
+    private final int instructions;
+
+    private BinaryDelta(byte[] data) {
+        this.data = data;
+        final Reader reader = new Reader(data, 0);
+        this.baseLength = reader.readLength();
+        this.targetLength = reader.readLength();
+        this.instructions = reader.position;
+    }
+
+    /**
+     * Reads a delta from its binary form.
+     *
+     * @param encoded the delta as returned by {@link #toByteArray()}. Must not be {@code null}.
+     * @throws IllegalArgumentException if the header of the delta is malformed
+     */
+    public static BinaryDelta of(byte[] encoded) {
+        Objects.requireNonNull(encoded, "encoded delta must not be null");
+        return new BinaryDelta(encoded.clone());
+    }
+
+    public int getBaseLength() {
+        return baseLength;
+    }
+
+    public int getTargetLength() {
+        return targetLength;
+    }
+
+    /**
+     * @return the size of the delta in bytes
+     */
+    public int size() {
+        return data.length;
+    }
+
+    public byte[] toByteArray() {
+        return data.clone();
+    }
+
+    /**
+     * Creates the target from the given base.
+     *
+     * @param base the base the delta was computed for. Must not be {@code null}.
+     * @return the target
+     * @throws PatchFailedException if the base does not have the expected length or the delta is corrupt
+     */
+    public byte[] apply(byte[] base) throws PatchFailedException {
+        Objects.requireNonNull(base, "base must not be null");
+        return apply(ByteBuffer.wrap(base)).array();
+    }
+
+    /**
+     * Creates the target from the remaining bytes of the given base. The position of the base is not changed.
+     *
+     * @param base the base the delta was computed for. Must not be {@code null}.
+     * @return the target, in a heap buffer
+     * @throws PatchFailedException if the base does not have the expected length or the delta is corrupt
+     */
+    public ByteBuffer apply(ByteBuffer base) throws PatchFailedException {
+        Objects.requireNonNull(base, "base must not be null");
+        if (base.remaining() != baseLength) {
+            throw new PatchFailedException("base has " + base.remaining() + " bytes, delta expects " + baseLength);
+        }
+        final ByteBuffer source = base.duplicate();
+        final int offset = source.position();
+        final byte[] target = new byte[targetLength];
+        final Reader reader = new Reader(data, instructions);
+        int written = 0;
+        long copyEnd = 0;
+        try {
+            while (reader.position < data.length) {
+                final long op = reader.readVarint();
+                final long length = op >>> 1;
+                if (length > targetLength - written) {
+                    throw new PatchFailedException("delta exceeds the target length");
+                }
+                if ((op & 1) != 0) {
+                    final long distance = reader.readVarint();
+                    final long from = copyEnd + ((distance >>> 1) ^ -(distance & 1));
+                    if (from < 0 || from + length > baseLength) {
+                        throw new PatchFailedException("copy outside of the base");
+                    }
+                    source.position(offset + (int) from);
+                    source.get(target, written, (int) length);
+                    copyEnd = from + length;
+                } else {
+                    if (length > data.length - reader.position) {
+                        throw new PatchFailedException("delta is truncated");
+                    }
+                    System.arraycopy(data, reader.position, target, written, (int) length);
+                    reader.position += (int) length;
+                }
+                written += (int) length;
+            }
+        } catch (IllegalArgumentException e) {
+            throw new PatchFailedException("delta is truncated");
+        }
+        if (written != targetLength) {
+            throw new PatchFailedException("delta is truncated");
+        }
+        return ByteBuffer.wrap(target);
+    }
+
+    /**
+     * Collects the instructions of a new delta.
+     */
+    static final class Writer {
+
+        private byte[] data = new byte[64];
+        private int size;
+        private long copyEnd;
+
+        Writer(int baseLength, int targetLength) {
+            writeVarint(baseLength);
+            writeVarint(targetLength);
+        }
+
+        void insert(byte[] source, int from, int length) {
+            if (length == 0) {
+                return;
+            }
+            writeVarint((long) length << 1);
+            ensureCapacity(length);
+            System.arraycopy(source, from, data, size, length);
+            size += length;
+        }
+
+        void copy(int from, int length) {
+            writeVarint(((long) length << 1) | 1);
+            final long distance = from - copyEnd;
+            writeVarint((distance << 1) ^ (distance >> 63));
+            copyEnd = (long) from + length;
+        }
+
+        BinaryDelta build() {
+            return new BinaryDelta(Arrays.copyOf(data, size));
+        }
+
+        private void writeVarint(long value) {
+            ensureCapacity(10);
+            long v = value;
+            while ((v & ~0x7FL) != 0) {
+                data[size++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            data[size++] = (byte) v;
+        }
+
+        private void ensureCapacity(int additional) {
+            if (size + additional > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, size + additional));
+            }
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] data;
+        int position;
+
+        Reader(byte[] data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= data.length) {
+                    throw new IllegalArgumentException("truncated variable length integer");
+                }
+                final byte b = data[position++];
+                if (shift == 63 && (b & 0x7E) != 0) {
+                    // the last byte only holds the highest bit, anything above it would be lost
+                    throw new IllegalArgumentException("variable length integer out of range");
+                }
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("malformed variable length integer");
+        }
+
+        int readLength() {
+            final long value = readVarint();
+            if (value < 0 || value > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("length out of range: " + value);
+            }
+            return (int) value;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.binary;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Computes a {@link BinaryDelta} between two byte sequences in the style of VCDIFF. The base is split into blocks,
+ * which are indexed by a hash. A rolling hash is moved over the target byte by byte; when it hits a block of the base
+ * whose bytes match, the match is extended in both directions and emitted as copy, the bytes in between become an
+ * insert. The runtime is linear in the size of both inputs and the index takes one int per block of the base.
+ * <p>
+ * Smaller blocks find shorter matches and produce smaller deltas for scattered changes, at the cost of a larger index.
+ */
+public final class BinaryDiff {
+
+    public static final int DEFAULT_BLOCK_SIZE = 16;
+    /**
+     * Maximum number of base blocks with the same hash examined for one target position.
+     */
+    private static final int MAX_CANDIDATES = 16;
+    private static final int MULTIPLIER = 0x01000193;
+
+    private final int blockSize;
+
+    public BinaryDiff() {
+        this(DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * @param blockSize the size of the indexed blocks of the base, which is the minimum length of a copy
+     */
+    public BinaryDiff(int blockSize) {
+        if (blockSize < 4) {
+            throw new IllegalArgumentException("blockSize must be at least 4");
+        }
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Computes the delta turning the base into the target.
+     *
+     * @param base   the base. Must not be {@code null}.
+     * @param target the target. Must not be {@code null}.
+     * @return the delta
+     */
+    public BinaryDelta diff(byte[] base, byte[] target) {
+        Objects.requireNonNull(base, "base must not be null");
+        Objects.requireNonNull(target, "target must not be null");
+
+        final BinaryDelta.Writer writer = new BinaryDelta.Writer(base.length, target.length);
+        final Index index = new Index(base);
+        final int power = power();
+        int insertStart = 0;
+        int t = 0;
+        int hash = target.length >= blockSize ? hash(target, 0) : 0;
+        while (t + blockSize <= target.length) {
+            int bestFrom = -1;
+            int bestLength = 0;
+            int bestBack = 0;
+            int candidates = 0;
+            for (int block = index.first(hash); block != -1 && candidates < MAX_CANDIDATES;
+                 block = index.next[block]) {
+                candidates++;
+                final int from = block * blockSize;
+                final int length = matchLength(base, from, target, t);
+                if (length < blockSize) {
+                    continue;
+                }
+                int back = 0;
+                while (from - back > 0 && t - back > insertStart && base[from - back - 1] == target[t - back - 1]) {
+                    back++;
+                }
+                if (length + back > bestLength + bestBack) {
+                    bestFrom = from;
+                    bestLength = length;
+                    bestBack = back;
+                }
+            }
+            if (bestFrom >= 0) {
+                writer.insert(target, insertStart, t - bestBack - insertStart);
+                writer.copy(bestFrom - bestBack, bestLength + bestBack);
+                t += bestLength;
+                insertStart = t;
+                if (t + blockSize <= target.length) {
+                    hash = hash(target, t);
+                }
+                continue;
+            }
+            if (t + blockSize < target.length) {
+                hash = (hash - (target[t] & 0xFF) * power) * MULTIPLIER + (target[t + blockSize] & 0xFF);
+            }
+            t++;
+        }
+        writer.insert(target, insertStart, target.length - insertStart);
+        return writer.build();
+    }
+
+    /**
+     * Computes the delta between the remaining bytes of both buffers. The positions of the buffers are not changed.
+     *
+     * @param base   the base. Must not be {@code null}.
+     * @param target the target. Must not be {@code null}.
+     * @return the delta
+     */
+    public BinaryDelta diff(ByteBuffer base, ByteBuffer target) {
+        Objects.requireNonNull(base, "base must not be null");
+        Objects.requireNonNull(target, "target must not be null");
+        return diff(toArray(base), toArray(target));
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+        if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0
+                && buffer.remaining() == buffer.array().length) {
+            return buffer.array();
+        }
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    private static int matchLength(byte[] base, int from, byte[] target, int to) {
+        final int max = Math.min(base.length - from, target.length - to);
+        int length = 0;
+        while (length < max && base[from + length] == target[to + length]) {
+            length++;
+        }
+        return length;
+    }
+
+    private int hash(byte[] bytes, int from) {
+        int h = 0;
+        for (int i = from; i < from + blockSize; i++) {
+            h = h * MULTIPLIER + (bytes[i] & 0xFF);
+        }
+        return h;
+    }
+
+    /**
+     * @return the factor of the byte leaving the rolling hash, the multiplier to the power of blockSize - 1
+     */
+    private int power() {
+        int p = 1;
+        for (int i = 1; i < blockSize; i++) {
+            p *= MULTIPLIER;
+        }
+        return p;
+    }
+
+    /**
+     * Hash index of the blocks of the base. Blocks with the same hash bucket are chained, later blocks first.
+     */
+    private final class Index {
+
+        private final int[] head;
+        final int[] next;
+        private final int shift;
+
+        Index(byte[] base) {
+            final int blocks = base.length / blockSize;
+            int bits = 4;
+            while (1 << bits < 2 * blocks) {
+                bits++;
+            }
+            shift = 32 - bits;
+            head = new int[1 << bits];
+            next = new int[blocks];
+            Arrays.fill(head, -1);
+            for (int block = 0; block < blocks; block++) {
+                final int bucket = bucket(hash(base, block * blockSize));
+                next[block] = head[bucket];
+                head[bucket] = block;
+            }
+        }
+
+        int first(int hash) {
+            return head[bucket(hash)];
+        }
+
+        private int bucket(int hash) {
+            return (hash * 0x9E3779B9) >>> shift;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.merge;
+
+import com.github.difflib.patch.Chunk;
+
+import java.util.Objects;
+
+/**
+ * A region of the base changed differently by both sides. Each chunk holds the lines of the region and its position
+ * within its own sequence.
+ *
+ * @param <T> The type of the compared elements in the 'lines'.
+ */
+public final class MergeConflict<T> {
+
+    private final int position;
+    private final Chunk<T> base;
+    private final Chunk<T> ours;
+    private final Chunk<T> theirs;
+
+    MergeConflict(int position, Chunk<T> base, Chunk<T> ours, Chunk<T> theirs) {
+        this.position = position;
+        this.base = Objects.requireNonNull(base, "base must not be null");
+        this.ours = Objects.requireNonNull(ours, "ours must not be null");
+        this.theirs = Objects.requireNonNull(theirs, "theirs must not be null");
+    }
+
+    /**
+     * @return the position of the conflict within the merged lines
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    public Chunk<T> getBase() {
+        return base;
+    }
+
+    public Chunk<T> getOurs() {
+        return ours;
+    }
+
+    public Chunk<T> getTheirs() {
+        return theirs;
+    }
+
+    @Override
+    public String toString() {
+        return "[MergeConflict, position: " + position + ", base: " + base + ", ours: " + ours + ", theirs: " + theirs
+                + "]";
+    }
+}
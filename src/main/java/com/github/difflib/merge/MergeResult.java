@@ -0,0 +1,82 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.merge;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Outcome of a {@link ThreeWayMerge}. The merged lines contain all changes of both sides; within a conflict they hold
+ * the lines of our side, so that a merge without conflicts is complete and one with conflicts is at least a valid
+ * sequence. {@link #resolve(Function)} replaces the conflicts by other lines, e.g. conflict markers.
+ *
+ * @param <T> The type of the compared elements in the 'lines'.
+ */
+public final class MergeResult<T> {
+
+    private final List<T> merged;
+    private final List<MergeConflict<T>> conflicts;
+
+    MergeResult(List<T> merged, List<MergeConflict<T>> conflicts) {
+        this.merged = Collections.unmodifiableList(merged);
+        this.conflicts = Collections.unmodifiableList(conflicts);
+    }
+
+    /**
+     * @return the merged lines, with our side in conflicting regions
+     */
+    public List<T> getMerged() {
+        return merged;
+    }
+
+    /**
+     * @return the conflicts in ascending order of position
+     */
+    public List<MergeConflict<T>> getConflicts() {
+        return conflicts;
+    }
+
+    public boolean hasConflicts() {
+        return !conflicts.isEmpty();
+    }
+
+    /**
+     * Creates the merged lines with each conflict replaced by the lines returned by the resolver.
+     *
+     * @param resolver returns the lines for a conflict. Must not be {@code null}.
+     * @return the resolved lines
+     */
+    public List<T> resolve(Function<? super MergeConflict<T>, ? extends List<? extends T>> resolver) {
+        Objects.requireNonNull(resolver, "resolver must not be null");
+        final List<T> result = new ArrayList<>(merged.size());
+        int position = 0;
+        for (MergeConflict<T> conflict : conflicts) {
+            result.addAll(merged.subList(position, conflict.getPosition()));
+            result.addAll(resolver.apply(conflict));
+            position = conflict.getPosition() + conflict.getOurs().size();
+        }
+        result.addAll(merged.subList(position, merged.size()));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "MergeResult{" + "merged=" + merged + ", conflicts=" + conflicts + '}';
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.merge;
+
+import com.github.difflib.algorithm.Change;
+import com.github.difflib.algorithm.DiffAlgorithm;
+import com.github.difflib.algorithm.DiffException;
+import com.github.difflib.algorithm.DifferentiationFailedException;
+import com.github.difflib.algorithm.myers.MyersDiff;
+import com.github.difflib.patch.Chunk;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Three-way merge in the style of diff3. The base is diffed against both sides, then both lists of changes are walked
+ * in one pass along the base: changes of the two sides overlapping or touching each other form a region. A region
+ * changed by one side only takes that side, a region changed identically by both sides is taken once, every other
+ * region is a {@link MergeConflict}. The lines between the regions are copied from the base.
+ * <p>
+ * Given a {@link ForkJoinPool}, the two diffs of large inputs run in parallel; the algorithm is then called from two
+ * threads at once and therefore has to be thread safe.
+ *
+ * @param <T> The type of the compared elements in the 'lines'.
+ */
+public final class ThreeWayMerge<T> {
+
+    /**
+     * Inputs smaller than this (base and both sides together) are diffed sequentially even if a pool is given.
+     */
+    public static final int DEFAULT_THRESHOLD = 10_000;
+
+    private final DiffAlgorithm<T> algorithm;
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    /**
+     * Uses {@link MyersDiff} and diffs sequentially.
+     */
+    public ThreeWayMerge() {
+        this(new MyersDiff<>());
+    }
+
+    /**
+     * Diffs sequentially.
+     *
+     * @param algorithm the algorithm used for both diffs. Must not be {@code null}.
+     */
+    public ThreeWayMerge(DiffAlgorithm<T> algorithm) {
+        Objects.requireNonNull(algorithm, "algorithm must not be null");
+        this.algorithm = algorithm;
+        this.pool = null;
+        this.threshold = DEFAULT_THRESHOLD;
+    }
+
+    /**
+     * Diffs both sides of large inputs in parallel.
+     *
+     * @param algorithm the algorithm used for both diffs. Must not be {@code null}.
+     * @param pool      the pool to run the diff of their side in. Must not be {@code null}.
+     */
+    public ThreeWayMerge(DiffAlgorithm<T> algorithm, ForkJoinPool pool) {
+        this(algorithm, pool, DEFAULT_THRESHOLD);
+    }
+
+    ThreeWayMerge(DiffAlgorithm<T> algorithm, ForkJoinPool pool, int threshold) {
+        Objects.requireNonNull(algorithm, "algorithm must not be null");
+        Objects.requireNonNull(pool, "pool must not be null");
+        this.algorithm = algorithm;
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Merges the changes of both sides.
+     *
+     * @param base   the common ancestor. Must not be {@code null}.
+     * @param ours   our revision of the base. Must not be {@code null}.
+     * @param theirs their revision of the base. Must not be {@code null}.
+     * @return the merged lines and the conflicts
+     */
+    public MergeResult<T> merge(List<T> base, List<T> ours, List<T> theirs) throws DiffException {
+        Objects.requireNonNull(base, "base must not be null");
+        Objects.requireNonNull(ours, "ours must not be null");
+        Objects.requireNonNull(theirs, "theirs must not be null");
+
+        final List<Change> oursChanges;
+        final List<Change> theirsChanges;
+        if (pool != null && base.size() + ours.size() + theirs.size() >= threshold) {
+            final ForkJoinTask<List<Change>> task = pool.submit(() -> sorted(algorithm.diff(base, theirs)));
+            oursChanges = sorted(algorithm.diff(base, ours));
+            theirsChanges = join(task);
+        } else {
+            oursChanges = sorted(algorithm.diff(base, ours));
+            theirsChanges = sorted(algorithm.diff(base, theirs));
+        }
+        return merge(base, ours, theirs, oursChanges, theirsChanges);
+    }
+
+    private static <T> MergeResult<T> merge(List<T> base, List<T> ours, List<T> theirs,
+                                            List<Change> oursChanges, List<Change> theirsChanges) {
+        final List<T> merged = new ArrayList<>(Math.max(ours.size(), theirs.size()));
+        final List<MergeConflict<T>> conflicts = new ArrayList<>();
+        int basePos = 0;
+        int i = 0;
+        int j = 0;
+        while (i < oursChanges.size() || j < theirsChanges.size()) {
+            final boolean oursFirst = j == theirsChanges.size()
+                    || i < oursChanges.size() && oursChanges.get(i).startOriginal <= theirsChanges.get(j).startOriginal;
+            final int firstOurs = i;
+            final int firstTheirs = j;
+            final int start;
+            int end;
+            if (oursFirst) {
+                start = oursChanges.get(i).startOriginal;
+                end = oursChanges.get(i++).endOriginal;
+            } else {
+                start = theirsChanges.get(j).startOriginal;
+                end = theirsChanges.get(j++).endOriginal;
+            }
+            // changes touching the region are part of it, like in diff3 adjacent edits of both sides conflict
+            while (true) {
+                if (i < oursChanges.size() && oursChanges.get(i).startOriginal <= end) {
+                    end = Math.max(end, oursChanges.get(i++).endOriginal);
+                } else if (j < theirsChanges.size() && theirsChanges.get(j).startOriginal <= end) {
+                    end = Math.max(end, theirsChanges.get(j++).endOriginal);
+                } else {
+                    break;
+                }
+            }
+
+            merged.addAll(base.subList(basePos, start));
+            basePos = end;
+            if (j == firstTheirs) {
+                merged.addAll(side(ours, oursChanges, firstOurs, i, start, end).getLines());
+            } else if (i == firstOurs) {
+                merged.addAll(side(theirs, theirsChanges, firstTheirs, j, start, end).getLines());
+            } else {
+                final Chunk<T> oursChunk = side(ours, oursChanges, firstOurs, i, start, end);
+                final Chunk<T> theirsChunk = side(theirs, theirsChanges, firstTheirs, j, start, end);
+                if (!oursChunk.getLines().equals(theirsChunk.getLines())) {
+                    conflicts.add(new MergeConflict<>(merged.size(),
+                            new Chunk<>(start, new ArrayList<>(base.subList(start, end))), oursChunk, theirsChunk));
+                }
+                merged.addAll(oursChunk.getLines());
+            }
+        }
+        merged.addAll(base.subList(basePos, base.size()));
+        return new MergeResult<>(merged, conflicts);
+    }
+
+    /**
+     * @return the lines of one side covering the base range, given the changes {@code from} (inclusive) to {@code to}
+     * (exclusive) of that side within the range
+     */
+    private static <T> Chunk<T> side(List<T> lines, List<Change> changes, int from, int to, int start, int end) {
+        final Change first = changes.get(from);
+        final Change last = changes.get(to - 1);
+        final int sideStart = first.startRevised - (first.startOriginal - start);
+        final int sideEnd = last.endRevised + (end - last.endOriginal);
+        return new Chunk<>(sideStart, new ArrayList<>(lines.subList(sideStart, sideEnd)));
+    }
+
+    private static List<Change> sorted(List<Change> changes) {
+        final List<Change> result = new ArrayList<>(changes);
+        result.sort(Comparator.<Change>comparingInt(c -> c.startOriginal).thenComparingInt(c -> c.startRevised));
+        return result;
+    }
+
+    private static List<Change> join(ForkJoinTask<List<Change>> task) throws DiffException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DifferentiationFailedException("merge interrupted");
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof DiffException) {
+                throw (DiffException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
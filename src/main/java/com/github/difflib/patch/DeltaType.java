@@ -34,5 +34,9 @@ public enum DeltaType {
     /**
      * An do nothing.
      */
-    EQUAL
+    EQUAL,
+    /**
+     * An insert of a block deleted at another position of the original.
+     */
+    MOVE
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.patch;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Insertion of a block deleted elsewhere in the original. The deleting side stays a {@link DeleteDelta} or
+ * {@link ChangeDelta} carrying the lines; this delta only references that source range. Its revised lines are a view
+ * of the source lines, not a copy.
+ * <p>
+ * Applying and restoring work like for an {@link InsertDelta}.
+ */
+public final class MoveDelta<T> extends Delta<T> {
+
+    private final Chunk<T> source;
+
+    /**
+     * Creates a move delta.
+     *
+     * @param original The original chunk, the position the block is inserted at. Must not be {@code null}.
+     * @param revised  The revised chunk, holding the lines of the source. Must not be {@code null}.
+     * @param source   The moved block within the original. Must not be {@code null}.
+     */
+    public MoveDelta(Chunk<T> original, Chunk<T> revised, Chunk<T> source) {
+        super(DeltaType.MOVE, original, revised);
+        Objects.requireNonNull(source, "source must not be null");
+        this.source = source;
+    }
+
+    /**
+     * @return The Chunk describing the moved block within the original text.
+     */
+    public Chunk<T> getSource() {
+        return source;
+    }
+
+    @Override
+    public void applyTo(List<T> target) throws PatchFailedException {
+        verify(target);
+        int position = this.getOriginal().getPosition();
+        List<T> lines = this.getRevised().getLines();
+        for (int i = 0; i < lines.size(); i++) {
+            target.add(position + i, lines.get(i));
+        }
+    }
+
+    @Override
+    public void restore(List<T> target) {
+        int position = getRevised().getPosition();
+        int size = getRevised().size();
+        for (int i = 0; i < size; i++) {
+            target.remove(position);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "[MoveDelta, position: " + getOriginal().getPosition() + ", from: " + source.getPosition()
+                + ", size: " + source.size() + "]";
+    }
+}
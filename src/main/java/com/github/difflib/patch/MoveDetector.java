@@ -0,0 +1,136 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.patch;
+
+import com.github.difflib.algorithm.Change;
+import com.github.difflib.algorithm.SymbolTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds blocks deleted by one change and inserted by another (or the same) change. All windows of the minimum block
+ * size within the deleted ranges are indexed by a rolling hash over the line ids; the inserted ranges are scanned with
+ * the same rolling hash and every verified hit is extended as far as possible. Each deleted line is the source of at
+ * most one move.
+ */
+final class MoveDetector {
+
+    private static final int MULTIPLIER = 0x01000193;
+    /**
+     * Maximum number of deleted windows with the same hash examined for one inserted window.
+     */
+    private static final int MAX_CANDIDATES = 64;
+
+    private MoveDetector() {
+    }
+
+    /**
+     * @return the moves as {@code {startRevised, endRevised, startOriginal}}, ascending by revised position
+     */
+    static <T> List<int[]> find(List<T> original, List<T> revised, List<Change> changes, int minBlockSize) {
+        final List<int[]> moves = new ArrayList<>();
+        if (changes.isEmpty()) {
+            return moves;
+        }
+        SymbolTable<T> table = new SymbolTable<>(original.size() + revised.size());
+        final int[] orig = table.intern(original);
+        final int[] rev = table.intern(revised);
+        int power = 1;
+        for (int i = 1; i < minBlockSize; i++) {
+            power *= MULTIPLIER;
+        }
+
+        // chains of window starts with the same hash, the end of the deleted range of each start
+        final Map<Integer, Integer> heads = new HashMap<>();
+        final int[] next = new int[orig.length];
+        final int[] rangeEnd = new int[orig.length];
+        for (Change change : changes) {
+            if (change.endOriginal - change.startOriginal < minBlockSize) {
+                continue;
+            }
+            int hash = hash(orig, change.startOriginal, minBlockSize);
+            for (int s = change.startOriginal; s + minBlockSize <= change.endOriginal; s++) {
+                if (s > change.startOriginal) {
+                    hash = roll(hash, orig[s - 1], orig[s + minBlockSize - 1], power);
+                }
+                final Integer previous = heads.put(hash, s);
+                next[s] = previous == null ? -1 : previous;
+                rangeEnd[s] = change.endOriginal;
+            }
+        }
+        if (heads.isEmpty()) {
+            return moves;
+        }
+
+        final boolean[] used = new boolean[orig.length];
+        for (Change change : changes) {
+            final int end = change.endRevised;
+            int j = change.startRevised;
+            if (end - j < minBlockSize) {
+                continue;
+            }
+            int hash = hash(rev, j, minBlockSize);
+            while (j + minBlockSize <= end) {
+                int bestSource = -1;
+                int bestLength = 0;
+                final Integer head = heads.get(hash);
+                int candidates = 0;
+                for (int s = head == null ? -1 : head; s != -1 && candidates < MAX_CANDIDATES; s = next[s]) {
+                    candidates++;
+                    int length = 0;
+                    while (j + length < end && s + length < rangeEnd[s] && !used[s + length]
+                            && orig[s + length] == rev[j + length]) {
+                        length++;
+                    }
+                    if (length >= minBlockSize && length > bestLength) {
+                        bestSource = s;
+                        bestLength = length;
+                    }
+                }
+                if (bestSource >= 0) {
+                    Arrays.fill(used, bestSource, bestSource + bestLength, true);
+                    moves.add(new int[]{j, j + bestLength, bestSource});
+                    j += bestLength;
+                    if (j + minBlockSize <= end) {
+                        hash = hash(rev, j, minBlockSize);
+                    }
+                    continue;
+                }
+                if (j + minBlockSize < end) {
+                    hash = roll(hash, rev[j], rev[j + minBlockSize], power);
+                }
+                j++;
+            }
+        }
+        return moves;
+    }
+
+    private static int hash(int[] ids, int from, int length) {
+        int h = 0;
+        for (int i = from; i < from + length; i++) {
+            h = h * MULTIPLIER + ids[i];
+        }
+        return h;
+    }
+
+    private static int roll(int hash, int out, int in, int power) {
+        return (hash - out * power) * MULTIPLIER + in;
+    }
+}
@@ -20,10 +20,14 @@ limitations under the License.
 package com.github.difflib.patch;
 
 import com.github.difflib.algorithm.Change;
+import com.github.difflib.algorithm.CompactChanges;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Objects;
 
 import static java.util.Comparator.comparing;
 
@@ -38,6 +42,10 @@ import static java.util.Comparator.comparing;
 public final class Patch<T> {
 
     private final List<Delta<T>> deltas;
+    /**
+     * changes wrapped by {@link #of(List, List, CompactChanges, int)} which are not converted to deltas yet
+     */
+    private Compact<T> compact;
 
     public Patch() {
         this(10);
@@ -85,6 +93,7 @@ public final class Patch<T> {
      * @param delta the given delta
      */
     public void addDelta(Delta<T> delta) {
+        materialize();
         deltas.add(delta);
     }
 
@@ -94,43 +103,68 @@ public final class Patch<T> {
      * @return the deltas
      */
     public List<Delta<T>> getDeltas() {
+        materialize();
         deltas.sort(comparing(d -> d.getOriginal().getPosition()));
         return deltas;
     }
 
+    /**
+     * Converts the deltas of this patch into compact changes. Moves are stored as inserts.
+     *
+     * @return the changes, in ascending order of their original position
+     */
+    public CompactChanges toCompactChanges() {
+        if (compact != null) {
+            final CompactChanges copy = new CompactChanges(compact.changes.size());
+            copy.appendAll(compact.changes);
+            return copy;
+        }
+        final List<Delta<T>> sorted = getDeltas();
+        final CompactChanges changes = new CompactChanges(sorted.size());
+        for (Delta<T> delta : sorted) {
+            final Chunk<T> original = delta.getOriginal();
+            final Chunk<T> revised = delta.getRevised();
+            changes.add(delta.getType() == DeltaType.MOVE ? DeltaType.INSERT : delta.getType(),
+                    original.getPosition(), original.getPosition() + original.size(),
+                    revised.getPosition(), revised.getPosition() + revised.size());
+        }
+        return changes;
+    }
+
     @Override
     public String toString() {
+        materialize();
         return "Patch{" + "deltas=" + deltas + '}';
     }
 
-    public static <T> Patch<T> generate(List<T> original, List<T> revised, List<Change> changes, int surroundingLines) {
+    /**
+     * Wraps the compact changes in a patch. The deltas are created on first access, like
+     * {@link #generate(List, List, List, int)} does; until then the patch only references the changes and both
+     * sequences, which must not be modified in the meantime.
+     */
+    public static <T> Patch<T> of(List<T> original, List<T> revised, CompactChanges changes, int surroundingLines) {
+        Objects.requireNonNull(original, "original must not be null");
+        Objects.requireNonNull(revised, "revised must not be null");
+        Objects.requireNonNull(changes, "changes must not be null");
         Patch<T> patch = new Patch<>(changes.size());
-        for (Change change : changes) {
-
-            Chunk<T> orgChunk = new Chunk<>(change.startOriginal, new ArrayList<>(original.subList(change.startOriginal, change.endOriginal)));
-            if (change.startOriginal - surroundingLines >= 0) {
-                orgChunk.setBefore(new ArrayList<>(original.subList(change.startOriginal - surroundingLines, change.startOriginal)));
-            } else {
-                orgChunk.setBefore(new ArrayList<>(original.subList(0, change.startOriginal)));
-            }
-            if (change.endOriginal + surroundingLines <= original.size()) {
-                orgChunk.setAfter(new ArrayList<>(original.subList(change.endOriginal, change.endOriginal + surroundingLines)));
-            } else {
-                orgChunk.setAfter(new ArrayList<>(original.subList(change.endOriginal, original.size())));
-            }
+        patch.compact = new Compact<>(original, revised, changes, surroundingLines);
+        return patch;
+    }
 
-            Chunk<T> revChunk = new Chunk<>(change.startRevised, new ArrayList<>(revised.subList(change.startRevised, change.endRevised)));
-            if (change.startRevised - surroundingLines >= 0) {
-                revChunk.setBefore(new ArrayList<>(revised.subList(change.startRevised - surroundingLines, change.startRevised)));
-            } else {
-                revChunk.setBefore(new ArrayList<>(revised.subList(0, change.startRevised)));
-            }
-            if (change.endRevised + surroundingLines <= revised.size()) {
-                revChunk.setAfter(new ArrayList<>(revised.subList(change.endRevised, change.endRevised + surroundingLines)));
-            } else {
-                revChunk.setAfter(new ArrayList<>(revised.subList(change.endRevised, revised.size())));
-            }
+    private void materialize() {
+        if (compact != null) {
+            final Compact<T> pending = compact;
+            compact = null;
+            deltas.addAll(0, generate(pending.original, pending.revised, pending.changes.asList(),
+                    pending.surroundingLines).deltas);
+        }
+    }
 
+    public static <T> Patch<T> generate(List<T> original, List<T> revised, List<Change> changes, int surroundingLines) {
+        Patch<T> patch = new Patch<>(changes.size());
+        for (Change change : changes) {
+            Chunk<T> orgChunk = chunk(original, change.startOriginal, change.endOriginal, surroundingLines);
+            Chunk<T> revChunk = chunk(revised, change.startRevised, change.endRevised, surroundingLines);
             switch (change.deltaType) {
                 case DELETE:
                     patch.addDelta(new DeleteDelta<>(orgChunk, revChunk));
@@ -146,4 +180,108 @@ public final class Patch<T> {
         return patch;
     }
 
+    /**
+     * Creates a patch from the given changes, reporting blocks deleted at one position and inserted at another one as
+     * {@link MoveDelta}. Such blocks are found by a rolling hash over the interned lines. The deleting delta keeps the
+     * lines, the move delta only references them. A change inserting a moved block is split into the part replacing
+     * its original lines, the moves and the plain inserts in between, all at the end of its original range.
+     *
+     * @param minBlockSize the minimum number of lines of a moved block
+     */
+    public static <T> Patch<T> generate(List<T> original, List<T> revised, List<Change> unsortedChanges,
+                                        int surroundingLines, int minBlockSize) {
+        if (minBlockSize < 1) {
+            throw new IllegalArgumentException("minBlockSize must be positive");
+        }
+        final List<Change> changes = new ArrayList<>(unsortedChanges);
+        changes.sort(Comparator.<Change>comparingInt(c -> c.startOriginal).thenComparingInt(c -> c.startRevised));
+        final List<int[]> moves = MoveDetector.find(original, revised, changes, minBlockSize);
+        if (moves.isEmpty()) {
+            return generate(original, revised, changes, surroundingLines);
+        }
+
+        // the original chunks are created first, so that moves can reference the lines of their source
+        final List<Chunk<T>> orgChunks = new ArrayList<>(changes.size());
+        final int[] changeOf = new int[original.size()];
+        for (int c = 0; c < changes.size(); c++) {
+            final Change change = changes.get(c);
+            orgChunks.add(chunk(original, change.startOriginal, change.endOriginal, surroundingLines));
+            Arrays.fill(changeOf, change.startOriginal, change.endOriginal, c);
+        }
+
+        Patch<T> patch = new Patch<>(changes.size() + moves.size());
+        int m = 0;
+        for (int c = 0; c < changes.size(); c++) {
+            final Change change = changes.get(c);
+            final Chunk<T> orgChunk = orgChunks.get(c);
+            int revStart = change.startRevised;
+            // the revised lines before the first move replace the original lines of the change
+            final int firstEnd = m < moves.size() && moves.get(m)[0] < change.endRevised ? moves.get(m)[0]
+                    : change.endRevised;
+            final Chunk<T> firstChunk = chunk(revised, revStart, firstEnd, surroundingLines);
+            final List<Delta<T>> split = new ArrayList<>();
+            if (orgChunk.size() > 0 && firstEnd > revStart) {
+                split.add(new ChangeDelta<>(orgChunk, firstChunk));
+            } else if (orgChunk.size() > 0) {
+                split.add(new DeleteDelta<>(orgChunk, firstChunk));
+            } else if (firstEnd > revStart) {
+                split.add(new InsertDelta<>(orgChunk, firstChunk));
+            }
+            revStart = firstEnd;
+            while (revStart < change.endRevised) {
+                final Chunk<T> insertAt = chunk(original, change.endOriginal, change.endOriginal, surroundingLines);
+                if (m < moves.size() && moves.get(m)[0] == revStart) {
+                    final int[] move = moves.get(m++);
+                    final Chunk<T> sourceDelta = orgChunks.get(changeOf[move[2]]);
+                    final int offset = move[2] - sourceDelta.getPosition();
+                    final Chunk<T> source = new Chunk<>(move[2],
+                            sourceDelta.getLines().subList(offset, offset + move[1] - move[0]));
+                    final Chunk<T> context = chunk(revised, move[0], move[0], surroundingLines);
+                    final Chunk<T> revChunk = new Chunk<>(move[0], source.getLines());
+                    revChunk.setBefore(context.getBefore());
+                    revChunk.setAfter(new ArrayList<>(revised.subList(move[1],
+                            Math.min(revised.size(), move[1] + surroundingLines))));
+                    split.add(new MoveDelta<>(insertAt, revChunk, source));
+                    revStart = move[1];
+                } else {
+                    final int end = m < moves.size() && moves.get(m)[0] < change.endRevised ? moves.get(m)[0]
+                            : change.endRevised;
+                    split.add(new InsertDelta<>(insertAt, chunk(revised, revStart, end, surroundingLines)));
+                    revStart = end;
+                }
+            }
+            // the lines after all but the last part are only known once the following parts are applied
+            for (int i = 0; i < split.size() - 1; i++) {
+                split.get(i).getOriginal().setAfter(new ArrayList<>());
+            }
+            split.forEach(patch::addDelta);
+        }
+        return patch;
+    }
+
+    /**
+     * Creates the chunk of the given range with up to {@code surroundingLines} lines before and after it.
+     */
+    private static <T> Chunk<T> chunk(List<T> lines, int start, int end, int surroundingLines) {
+        Chunk<T> chunk = new Chunk<>(start, new ArrayList<>(lines.subList(start, end)));
+        chunk.setBefore(new ArrayList<>(lines.subList(Math.max(0, start - surroundingLines), start)));
+        chunk.setAfter(new ArrayList<>(lines.subList(end, Math.min(lines.size(), end + surroundingLines))));
+        return chunk;
+    }
+
+
+    private static final class Compact<T> {
+
+        final List<T> original;
+        final List<T> revised;
+        final CompactChanges changes;
+        final int surroundingLines;
+
+        Compact(List<T> original, List<T> revised, CompactChanges changes, int surroundingLines) {
+            this.original = original;
+            this.revised = revised;
+            this.changes = changes;
+            this.surroundingLines = surroundingLines;
+        }
+    }
 }
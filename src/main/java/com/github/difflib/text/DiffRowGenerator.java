@@ -20,7 +20,11 @@ limitations under the License.
 package com.github.difflib.text;
 
 import com.github.difflib.DiffUtils;
+import com.github.difflib.algorithm.Change;
 import com.github.difflib.algorithm.DiffException;
+import com.github.difflib.algorithm.HashingStrategy;
+import com.github.difflib.algorithm.lcs.BitParallelLcsDiff;
+import com.github.difflib.algorithm.myers.MyersDiff;
 import com.github.difflib.patch.*;
 import com.github.difflib.text.DiffRow.Tag;
 
@@ -50,6 +54,12 @@ public class DiffRowGenerator {
     public static final BiPredicate<String, String> IGNORE_WHITESPACE_EQUALIZER = (original, revised)
             -> original.trim().replaceAll("\\s+", " ").equals(revised.trim().replaceAll("\\s+", " "));
     public static final BiPredicate<String, String> DEFAULT_EQUALIZER = Object::equals;
+    private static final Pattern WHITESPACE_PATTERN = Pattern.compile("\\s+");
+    /**
+     * Same equality as {@link #IGNORE_WHITESPACE_EQUALIZER}, but each line is normalized only once per diff.
+     */
+    public static final HashingStrategy<String> IGNORE_WHITESPACE_STRATEGY
+            = HashingStrategy.comparing(line -> WHITESPACE_PATTERN.matcher(line.trim()).replaceAll(" "));
     private static final Pattern SPLIT_PATTERN = Pattern.compile("\\s+|[,.\\[\\](){}/\\\\*+\\-#]");
     private final boolean showInlineDiffs;
     private final boolean ignoreWhiteSpaces;
@@ -57,7 +67,6 @@ public class DiffRowGenerator {
     private final Function<Boolean, String> newTag;
     private final boolean inlineDiffByWord;
     private final int columnWidth;
-    private final BiPredicate<String, String> equalizer;
     private final boolean mergeOriginalRevised;
     private final boolean reportLinesUnchanged;
 
@@ -87,7 +96,6 @@ public class DiffRowGenerator {
         columnWidth = builder.columnWidth;
         mergeOriginalRevised = builder.mergeOriginalRevised;
         inlineDiffByWord = builder.inlineDiffByWord;
-        equalizer = ignoreWhiteSpaces ? IGNORE_WHITESPACE_EQUALIZER : DEFAULT_EQUALIZER;
         reportLinesUnchanged = builder.reportLinesUnchanged;
     }
 
@@ -100,7 +108,11 @@ public class DiffRowGenerator {
      * @return the DiffRows between original and revised texts
      */
     public List<DiffRow> generateDiffRows(List<String> original, List<String> revised) throws DiffException {
-        return generateDiffRows(original, DiffUtils.diff(original, revised, equalizer, 1));
+        if (ignoreWhiteSpaces) {
+            return generateDiffRows(original, DiffUtils.diff(original, revised, IGNORE_WHITESPACE_STRATEGY,
+                    new MyersDiff<>(), 1));
+        }
+        return generateDiffRows(original, DiffUtils.diff(original, revised, 1));
     }
 
     private String preprocessLine(String line) {
@@ -160,8 +172,8 @@ public class DiffRowGenerator {
                 diffRows.add(buildDiffRow(Tag.EQUAL, line, line));
             }
 
-            // Inserted DiffRow
-            if (delta instanceof InsertDelta) {
+            // Inserted DiffRow, a moved block is shown as inserted at its new position
+            if (delta instanceof InsertDelta || delta instanceof MoveDelta) {
                 endPos = orig.last() + 1;
                 for (String line : (List<String>) rev.getLines()) {
                     diffRows.add(buildDiffRow(Tag.INSERT, "", line));
@@ -205,69 +217,59 @@ public class DiffRowGenerator {
     private List<DiffRow> generateInlineDiffs(Delta<String> delta) throws DiffException {
         List<String> orig = StringUtils.normalize(delta.getOriginal().getLines());
         List<String> rev = StringUtils.normalize(delta.getRevised().getLines());
-        List<String> origList;
-        List<String> revList;
         String joinedOrig = String.join("\n", orig);
         String joinedRev = String.join("\n", rev);
+        StringBuilder origResult = new StringBuilder();
+        StringBuilder revResult = new StringBuilder();
 
         if (inlineDiffByWord) {
-            origList = splitStringPreserveDelimiter(joinedOrig);
-            revList = splitStringPreserveDelimiter(joinedRev);
-        } else {
-            origList = new ArrayList<>(joinedOrig.length());
-            revList = new ArrayList<>(joinedRev.length());
-            for (Character character : joinedOrig.toCharArray()) {
-                origList.add(character.toString());
+            List<String> origList = splitStringPreserveDelimiter(joinedOrig);
+            List<String> revList = splitStringPreserveDelimiter(joinedRev);
+            List<Delta<String>> inlineDeltas = DiffUtils.diff(origList, revList, 1).getDeltas();
+
+            Collections.reverse(inlineDeltas);
+            for (Delta<String> inlineDelta : inlineDeltas) {
+                Chunk<String> inlineOrig = inlineDelta.getOriginal();
+                Chunk<String> inlineRev = inlineDelta.getRevised();
+                if (inlineDelta instanceof DeleteDelta) {
+                    wrapInTag(origList, inlineOrig.getPosition(), inlineOrig
+                            .getPosition()
+                            + inlineOrig.size() + 1, oldTag);
+                } else if (inlineDelta instanceof InsertDelta) {
+                    if (mergeOriginalRevised) {
+                        origList.addAll(inlineOrig.getPosition(),
+                                revList.subList(inlineRev.getPosition(), inlineRev.getPosition()
+                                        + inlineRev.size()));
+                        wrapInTag(origList, inlineOrig.getPosition(), inlineOrig.getPosition()
+                                + inlineRev.size() + 1, newTag);
+                    } else {
+                        wrapInTag(revList, inlineRev.getPosition(), inlineRev.getPosition()
+                                + inlineRev.size() + 1, newTag);
+                    }
+                } else if (inlineDelta instanceof ChangeDelta) {
+                    if (mergeOriginalRevised) {
+                        origList.addAll(inlineOrig.getPosition() + inlineOrig.size(),
+                                revList.subList(inlineRev.getPosition(), inlineRev.getPosition()
+                                        + inlineRev.size()));
+                        wrapInTag(origList, inlineOrig.getPosition() + inlineOrig.size(), inlineOrig.getPosition()
+                                + inlineOrig.size() + inlineRev.size() + 1, newTag);
+                    } else {
+                        wrapInTag(revList, inlineRev.getPosition(), inlineRev.getPosition()
+                                + inlineRev.size() + 1, newTag);
+                    }
+                    wrapInTag(origList, inlineOrig.getPosition(), inlineOrig
+                            .getPosition()
+                            + inlineOrig.size() + 1, oldTag);
+                }
             }
-            for (Character character : joinedRev.toCharArray()) {
-                revList.add(character.toString());
+            for (String word : origList) {
+                origResult.append(word);
             }
-        }
-
-        List<Delta<String>> inlineDeltas = DiffUtils.diff(origList, revList, 1).getDeltas();
-
-        Collections.reverse(inlineDeltas);
-        for (Delta<String> inlineDelta : inlineDeltas) {
-            Chunk<String> inlineOrig = inlineDelta.getOriginal();
-            Chunk<String> inlineRev = inlineDelta.getRevised();
-            if (inlineDelta instanceof DeleteDelta) {
-                wrapInTag(origList, inlineOrig.getPosition(), inlineOrig
-                        .getPosition()
-                        + inlineOrig.size() + 1, oldTag);
-            } else if (inlineDelta instanceof InsertDelta) {
-                if (mergeOriginalRevised) {
-                    origList.addAll(inlineOrig.getPosition(),
-                            revList.subList(inlineRev.getPosition(), inlineRev.getPosition()
-                                    + inlineRev.size()));
-                    wrapInTag(origList, inlineOrig.getPosition(), inlineOrig.getPosition()
-                            + inlineRev.size() + 1, newTag);
-                } else {
-                    wrapInTag(revList, inlineRev.getPosition(), inlineRev.getPosition()
-                            + inlineRev.size() + 1, newTag);
-                }
-            } else if (inlineDelta instanceof ChangeDelta) {
-                if (mergeOriginalRevised) {
-                    origList.addAll(inlineOrig.getPosition() + inlineOrig.size(),
-                            revList.subList(inlineRev.getPosition(), inlineRev.getPosition()
-                                    + inlineRev.size()));
-                    wrapInTag(origList, inlineOrig.getPosition() + inlineOrig.size(), inlineOrig.getPosition() + inlineOrig.size()
-                            + inlineRev.size() + 1, newTag);
-                } else {
-                    wrapInTag(revList, inlineRev.getPosition(), inlineRev.getPosition()
-                            + inlineRev.size() + 1, newTag);
-                }
-                wrapInTag(origList, inlineOrig.getPosition(), inlineOrig
-                        .getPosition()
-                        + inlineOrig.size() + 1, oldTag);
+            for (String word : revList) {
+                revResult.append(word);
             }
-        }
-        StringBuilder origResult = new StringBuilder();
-        StringBuilder revResult = new StringBuilder();
-        for (String character : origList) {
-            origResult.append(character);
-        }
-        for (String character : revList) {
-            revResult.append(character);
+        } else {
+            appendCharacterDiffs(joinedOrig, joinedRev, origResult, revResult);
         }
 
         List<String> original = Arrays.asList(origResult.toString().split("\n"));
@@ -282,6 +284,40 @@ public class DiffRowGenerator {
         return diffRows;
     }
 
+    /**
+     * Appends both texts with the tags around the ranges of the changed characters. The characters are diffed
+     * directly on the texts, so no object is created per character.
+     */
+    private void appendCharacterDiffs(String joinedOrig, String joinedRev, StringBuilder origResult,
+                                      StringBuilder revResult) throws DiffException {
+        int origPos = 0;
+        int revPos = 0;
+        for (Change change : new BitParallelLcsDiff().diff(joinedOrig, joinedRev)) {
+            origResult.append(joinedOrig, origPos, change.startOriginal);
+            revResult.append(joinedRev, revPos, change.startRevised);
+            if (change.startOriginal < change.endOriginal) {
+                appendInTag(origResult, joinedOrig, change.startOriginal, change.endOriginal, oldTag);
+            }
+            if (change.startRevised < change.endRevised) {
+                if (mergeOriginalRevised) {
+                    appendInTag(origResult, joinedRev, change.startRevised, change.endRevised, newTag);
+                    revResult.append(joinedRev, change.startRevised, change.endRevised);
+                } else {
+                    appendInTag(revResult, joinedRev, change.startRevised, change.endRevised, newTag);
+                }
+            }
+            origPos = change.endOriginal;
+            revPos = change.endRevised;
+        }
+        origResult.append(joinedOrig, origPos, joinedOrig.length());
+        revResult.append(joinedRev, revPos, joinedRev.length());
+    }
+
+    private static void appendInTag(StringBuilder result, String text, int start, int end,
+                                     Function<Boolean, String> generator) {
+        result.append(generator.apply(true)).append(text, start, end).append(generator.apply(false));
+    }
+
     /**
      * This class used for building the DiffRowGenerator.
      *
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Length of the common run of two int sequences, used by the algorithms to extend snakes and to strip common prefixes
+ * and suffixes of interned sequences.
+ * <p>
+ * Java 9 version of the multi-release jar: long runs are compared by {@link Arrays#mismatch(int[], int, int, int[], int,
+ * int)}, which the JIT compiles to vector instructions. The first element is compared directly, since most snakes are
+ * short.
+ */
+public final class Mismatch {
+
+    private static final int BLOCK = 64;
+
+    private Mismatch() {
+    }
+
+    public static int commonPrefix(int[] a, int aFrom, int[] b, int bFrom, int length) {
+        if (length <= 0 || a[aFrom] != b[bFrom]) {
+            return 0;
+        }
+        final int mismatch = Arrays.mismatch(a, aFrom + 1, aFrom + length, b, bFrom + 1, bFrom + length);
+        return mismatch < 0 ? length : mismatch + 1;
+    }
+
+    public static int commonSuffix(int[] a, int aTo, int[] b, int bTo, int length) {
+        if (length <= 0 || a[aTo - 1] != b[bTo - 1]) {
+            return 0;
+        }
+        // there is no reverse mismatch, so whole blocks are compared from the end
+        int i = 1;
+        while (length - i >= BLOCK
+                && Arrays.equals(a, aTo - i - BLOCK, aTo - i, b, bTo - i - BLOCK, bTo - i)) {
+            i += BLOCK;
+        }
+        while (i < length && a[aTo - 1 - i] == b[bTo - 1 - i]) {
+            i++;
+        }
+        return i;
+    }
+}
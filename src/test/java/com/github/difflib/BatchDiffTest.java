@@ -0,0 +1,82 @@
+package com.github.difflib;
+
+import com.github.difflib.algorithm.DiffException;
+import com.github.difflib.algorithm.myers.MyersDiff;
+import com.github.difflib.patch.Patch;
+import com.github.difflib.patch.PatchFailedException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BatchDiffTest {
+
+    @Test
+    public void testResultsInOrderOfPairs() throws DiffException, PatchFailedException {
+        Random random = new Random(5);
+        List<List<Integer>> originals = new ArrayList<>();
+        List<List<Integer>> revisions = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            List<Integer> original = new ArrayList<>();
+            for (int j = random.nextInt(100); j > 0; j--) {
+                original.add(random.nextInt(10));
+            }
+            List<Integer> revised = new ArrayList<>(original);
+            for (int j = random.nextInt(5); j > 0; j--) {
+                revised.add(random.nextInt(revised.size() + 1), random.nextInt(10));
+            }
+            originals.add(original);
+            revisions.add(revised);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Patch<Integer>> patches = new BatchDiff<>(new MyersDiff<Integer>(), executor, 1)
+                    .diff(originals, revisions);
+            assertEquals(originals.size(), patches.size());
+            for (int i = 0; i < patches.size(); i++) {
+                assertEquals(revisions.get(i), DiffUtils.patch(originals.get(i), patches.get(i)));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testLargestPairsFirst() throws DiffException {
+        List<Runnable> tasks = new ArrayList<>();
+        List<List<String>> originals = asList(asList("a"), asList("a", "b", "c"), asList("a", "b"));
+        List<List<String>> revisions = asList(asList("b"), asList("c", "b", "a"), asList("b", "a"));
+        List<CompletableFuture<Patch<String>>> futures = new BatchDiff<String>(tasks::add)
+                .submit(originals, revisions);
+        assertEquals(3, tasks.size());
+
+        tasks.get(0).run();
+        assertTrue(futures.get(1).isDone());
+        tasks.get(1).run();
+        assertTrue(futures.get(2).isDone());
+        tasks.get(2).run();
+        assertTrue(futures.get(0).isDone());
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void testRejectedTask() throws DiffException {
+        new BatchDiff<String>(task -> {
+            throw new RejectedExecutionException("full");
+        }).diff(asList(asList("a")), asList(asList("b")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDifferentNumberOfRevisions() {
+        new BatchDiff<String>(Runnable::run).submit(asList(asList("a")), new ArrayList<List<String>>());
+    }
+}
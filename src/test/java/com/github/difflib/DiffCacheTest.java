@@ -0,0 +1,93 @@
+package com.github.difflib;
+
+import com.github.difflib.algorithm.Change;
+import com.github.difflib.algorithm.DiffException;
+import com.github.difflib.algorithm.myers.MyersDiff;
+import com.github.difflib.patch.Patch;
+import com.github.difflib.patch.PatchFailedException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class DiffCacheTest {
+
+    @Test
+    public void testRepeatedRequestIsCached() throws DiffException, PatchFailedException {
+        DiffCache<String> cache = DiffCache.ofStrings(1 << 20);
+        MyersDiff<String> algorithm = new MyersDiff<>();
+        List<String> original = asList("a", "b", "c");
+        List<String> revised = asList("a", "x", "c");
+
+        List<Change> first = cache.changes(original, revised, algorithm, "myers");
+        List<Change> second = cache.changes(new ArrayList<>(original), new ArrayList<>(revised), algorithm, "myers");
+        assertSame(first, second);
+        assertEquals(1, cache.size());
+
+        Patch<String> patch = cache.diff(original, revised, algorithm, "myers", 1);
+        assertEquals(revised, DiffUtils.patch(original, patch));
+    }
+
+    @Test
+    public void testKeyContainsDescriptorAndElementBoundaries() throws DiffException {
+        DiffCache<String> cache = DiffCache.ofStrings(1 << 20);
+        MyersDiff<String> algorithm = new MyersDiff<>();
+        List<Change> first = cache.changes(asList("ab", "c"), asList("x"), algorithm, "myers");
+        assertNotSame(first, cache.changes(asList("a", "bc"), asList("x"), algorithm, "myers"));
+        assertNotSame(first, cache.changes(asList("ab", "c"), asList("x"), algorithm, "patience"));
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void testDescriptorIsSharedByInstances() throws DiffException {
+        DiffCache<String> cache = DiffCache.ofStrings(1 << 20);
+        List<Change> first = cache.changes(asList("a"), asList("b"), new MyersDiff<>(), "myers");
+        assertSame(first, cache.changes(asList("a"), asList("b"), new MyersDiff<>(), "myers"));
+
+        List<Change> ignoringCase = cache.changes(asList("A"), asList("a"),
+                new MyersDiff<>(String::equalsIgnoreCase), "myers/ignore-case");
+        assertTrue(ignoringCase.isEmpty());
+        assertEquals(1, cache.changes(asList("A"), asList("a"), new MyersDiff<>(), "myers").size());
+    }
+
+    @Test
+    public void testContentFunctionOfOtherTypes() throws DiffException {
+        DiffCache<Integer> cache = new DiffCache<>(1 << 20, Integer::toHexString);
+        MyersDiff<Integer> algorithm = new MyersDiff<>();
+        List<Change> first = cache.changes(asList(1, 2), asList(1, 3), algorithm, "myers");
+        assertSame(first, cache.changes(asList(1, 2), asList(1, 3), algorithm, "myers"));
+        assertNotSame(first, cache.changes(asList(1, 2), asList(1, 4), algorithm, "myers"));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() throws DiffException {
+        MyersDiff<String> algorithm = new MyersDiff<>();
+        DiffCache<String> probe = DiffCache.ofStrings(1 << 20);
+        probe.changes(asList("a"), asList("b"), algorithm, "myers");
+        long entry = probe.estimatedBytes();
+
+        DiffCache<String> cache = DiffCache.ofStrings(2 * entry);
+        List<Change> a = cache.changes(asList("a"), asList("b"), algorithm, "myers");
+        List<Change> b = cache.changes(asList("b"), asList("c"), algorithm, "myers");
+        assertSame(a, cache.changes(asList("a"), asList("b"), algorithm, "myers"));
+        cache.changes(asList("c"), asList("d"), algorithm, "myers");
+        assertEquals(2, cache.size());
+        assertTrue(cache.estimatedBytes() <= 2 * entry);
+        assertSame(a, cache.changes(asList("a"), asList("b"), algorithm, "myers"));
+        assertNotSame(b, cache.changes(asList("b"), asList("c"), algorithm, "myers"));
+    }
+
+    @Test
+    public void testEntryLargerThanCacheIsNotKept() throws DiffException {
+        DiffCache<String> cache = DiffCache.ofStrings(10);
+        cache.changes(asList("a"), asList("b"), new MyersDiff<String>(), "myers");
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.estimatedBytes());
+    }
+}
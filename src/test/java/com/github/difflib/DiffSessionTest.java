@@ -0,0 +1,135 @@
+package com.github.difflib;
+
+import com.github.difflib.algorithm.Change;
+import com.github.difflib.algorithm.DiffException;
+import com.github.difflib.patch.DeltaType;
+import com.github.difflib.patch.PatchFailedException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DiffSessionTest {
+
+    @Test
+    public void testInitialDiff() throws DiffException {
+        DiffSession<String> session = new DiffSession<>(asList("a", "b", "c"), asList("a", "x", "c"));
+        assertEquals(1, session.getChanges().size());
+        Change change = session.getChanges().get(0);
+        assertEquals(DeltaType.CHANGE, change.deltaType);
+        assertEquals(1, change.startOriginal);
+        assertEquals(2, change.endOriginal);
+    }
+
+    @Test
+    public void testEditRevised() throws DiffException {
+        DiffSession<String> session = new DiffSession<>(asList("a", "b", "c", "d", "e"),
+                asList("a", "b", "c", "d", "e"));
+        assertTrue(session.getChanges().isEmpty());
+
+        session.replaceRevised(2, 2, asList("x"));
+        assertEquals(asList("a", "b", "x", "c", "d", "e"), session.getRevised());
+        assertEquals(1, session.getChanges().size());
+        Change change = session.getChanges().get(0);
+        assertEquals(DeltaType.INSERT, change.deltaType);
+        assertEquals(2, change.startOriginal);
+        assertEquals(2, change.startRevised);
+        assertEquals(3, change.endRevised);
+
+        session.replaceRevised(2, 3, Collections.<String>emptyList());
+        assertTrue(session.getChanges().isEmpty());
+    }
+
+    @Test
+    public void testEditOriginalShiftsLaterChanges() throws DiffException {
+        DiffSession<String> session = new DiffSession<>(asList("a", "b", "c", "d", "e", "f"),
+                asList("a", "b", "c", "d", "e", "F"));
+        session.replaceOriginal(0, 1, asList("A", "A"));
+        List<Change> changes = session.getChanges();
+        assertEquals(2, changes.size());
+        assertEquals(0, changes.get(0).startOriginal);
+        assertEquals(2, changes.get(0).endOriginal);
+        assertEquals(6, changes.get(1).startOriginal);
+        assertEquals(5, changes.get(1).startRevised);
+    }
+
+    @Test
+    public void testRandomEditsKeepValidChanges() throws DiffException, PatchFailedException {
+        Random random = new Random(11);
+        List<Integer> original = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            original.add(random.nextInt(50));
+        }
+        List<Integer> revised = new ArrayList<>(original);
+        DiffSession<Integer> session = new DiffSession<>(original, revised);
+        for (int round = 0; round < 500; round++) {
+            boolean originalSide = random.nextInt(3) == 0;
+            List<Integer> target = originalSide ? original : revised;
+            int from = random.nextInt(target.size() + 1);
+            int to = Math.min(target.size(), from + random.nextInt(4));
+            List<Integer> replacement = new ArrayList<>();
+            for (int i = random.nextInt(4); i > 0; i--) {
+                replacement.add(random.nextInt(60));
+            }
+            target.subList(from, to).clear();
+            target.addAll(from, replacement);
+            if (originalSide) {
+                session.replaceOriginal(from, to, replacement);
+            } else {
+                session.replaceRevised(from, to, replacement);
+            }
+
+            assertEquals(original, session.getOriginal());
+            assertEquals(revised, session.getRevised());
+            int surroundingLines = random.nextInt(2);
+            assertEquals(revised, DiffUtils.patch(original, session.getPatch(surroundingLines)));
+            assertEquals(original, DiffUtils.unpatch(revised, session.getPatch(surroundingLines)));
+        }
+    }
+
+    @Test(timeout = 10_000)
+    public void testEditsOfLargeDocument() throws DiffException, PatchFailedException {
+        List<String> original = new ArrayList<>();
+        for (int i = 0; i < 500_000; i++) {
+            original.add("line " + i);
+        }
+        List<String> revised = new ArrayList<>(original);
+        for (int i = 0; i < revised.size(); i += 1000) {
+            revised.set(i, "changed " + i);
+        }
+        DiffSession<String> session = new DiffSession<>(original, revised);
+        assertEquals(500, session.getChanges().size());
+
+        // typing at a cursor moving through the middle of the document, each edit costs about the same
+        int cursor = 200_000;
+        for (int edit = 0; edit < 20_000; edit++) {
+            cursor += edit % 7 == 0 ? -5 : 3;
+            session.replaceRevised(cursor, cursor + 1, asList("typed " + edit));
+            revised.set(cursor, "typed " + edit);
+        }
+        session.replaceOriginal(1000, 1000, asList("x", "y"));
+        original.addAll(1000, asList("x", "y"));
+        assertEquals(revised, session.getRevised());
+        assertEquals(revised, DiffUtils.patch(original, session.getPatch(0)));
+    }
+
+    @Test
+    public void testRediffMatchesDiffUtils() throws DiffException {
+        DiffSession<String> session = new DiffSession<>(asList("a", "b", "c"), asList("a", "c"));
+        session.replaceRevised(0, 0, asList("z", "b"));
+        session.rediff();
+        assertEquals(DiffUtils.diff(session.getOriginal(), session.getRevised(), 0).getDeltas().size(),
+                session.getChanges().size());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testRangeOutOfBounds() throws DiffException {
+        new DiffSession<>(asList("a"), asList("a")).replaceOriginal(0, 2, asList("b"));
+    }
+}
@@ -1,9 +1,16 @@
 package com.github.difflib;
 
+import com.github.difflib.algorithm.Change;
+import com.github.difflib.algorithm.DiffAlgorithm;
 import com.github.difflib.algorithm.DiffException;
+import com.github.difflib.algorithm.HashingStrategy;
+import com.github.difflib.algorithm.histogram.HistogramDiff;
+import com.github.difflib.algorithm.myers.MyersDiff;
 import com.github.difflib.patch.*;
 import org.junit.Ignore;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -11,10 +18,13 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.BiPredicate;
 import java.util.zip.ZipFile;
 
 import static java.util.stream.Collectors.toList;
@@ -22,6 +32,9 @@ import static org.junit.Assert.*;
 
 public class DiffUtilsTest {
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     public static List<String> readStringListFromInputStream(InputStream is) throws IOException {
         try (BufferedReader reader = new BufferedReader(
                 new InputStreamReader(is, Charset.forName(StandardCharsets.UTF_8.name())))) {
@@ -243,4 +256,98 @@ public class DiffUtilsTest {
         assertEquals(4, patch.getDeltas().size());
         assertEquals("Patch{deltas=[[DeleteDelta, position: 0, lines: [A, B]], [InsertDelta, position: 3, lines: [B]], [DeleteDelta, position: 5, lines: [B]], [InsertDelta, position: 7, lines: [C]]]}", patch.toString());
     }
+
+    @Test
+    public void testDiffAppendOnlyDoesNotCallAlgorithm() throws DiffException {
+        List<String> original = Arrays.asList("a", "b", "c");
+        List<String> revised = Arrays.asList("a", "b", "c", "d", "e");
+        DiffAlgorithm<String> failing = comparingByEquals((orig, rev) -> {
+            throw new AssertionError("algorithm must not be called");
+        });
+
+        Patch<String> patch = DiffUtils.diff(original, revised, failing, 0);
+        assertEquals("Patch{deltas=[[InsertDelta, position: 3, lines: [d, e]]]}", patch.toString());
+
+        patch = DiffUtils.diff(revised, original, failing, 0);
+        assertEquals("Patch{deltas=[[DeleteDelta, position: 3, lines: [d, e]]]}", patch.toString());
+
+        assertTrue(DiffUtils.diff(original, original, failing, 0).getDeltas().isEmpty());
+    }
+
+    @Test
+    public void testDiffStripsCommonHeadAndTail() throws DiffException {
+        List<String> original = Arrays.asList("a", "b", "x", "y", "c", "d");
+        List<String> revised = Arrays.asList("a", "b", "z", "c", "d");
+        DiffAlgorithm<String> algorithm = comparingByEquals((orig, rev) -> {
+            assertEquals(Arrays.asList("x", "y"), orig);
+            assertEquals(Arrays.asList("z"), rev);
+            return new MyersDiff<String>().diff(orig, rev);
+        });
+
+        Patch<String> patch = DiffUtils.diff(original, revised, algorithm, 1);
+        assertEquals(1, patch.getDeltas().size());
+        assertEquals("[ChangeDelta, position: 2, lines: [x, y] to [z]]", patch.getDeltas().get(0).toString());
+        assertEquals(Arrays.asList("b"), patch.getDeltas().get(0).getOriginal().getBefore());
+    }
+
+    @Test
+    public void testDiffKeepsEndsForCustomEqualizer() throws DiffException {
+        List<String> original = Arrays.asList(new String("a"), "b", new String("c"));
+        List<String> revised = Arrays.asList(new String("a"), "X", new String("c"));
+        BiPredicate<String, String> identity = (p, q) -> p == q;
+
+        Patch<String> patch = DiffUtils.diff(original, revised, identity, 0);
+        assertEquals(1, patch.getDeltas().size());
+        assertEquals("[ChangeDelta, position: 0, lines: [a, b, c] to [a, X, c]]", patch.getDeltas().get(0).toString());
+        assertEquals(1, DiffUtils.diffCompact(original, revised, new MyersDiff<>(identity)).size());
+        assertEquals(0, DiffUtils.diffCompact(original, revised, new MyersDiff<>(identity)).getStartOriginal(0));
+
+        // an algorithm of unknown equality gets the complete lists
+        DiffAlgorithm<String> unknown = (orig, rev) -> {
+            assertEquals(3, orig.size());
+            return new MyersDiff<>(identity).diff(orig, rev);
+        };
+        assertEquals(0, DiffUtils.diff(original, revised, unknown, 0).getDeltas().get(0).getOriginal().getPosition());
+        assertFalse(new MyersDiff<>(identity).comparesByEquals());
+        assertTrue(new MyersDiff<String>().comparesByEquals());
+    }
+
+    private static <T> DiffAlgorithm<T> comparingByEquals(DiffAlgorithm<T> algorithm) {
+        return new DiffAlgorithm<T>() {
+            @Override
+            public List<Change> diff(List<T> original, List<T> revised) throws DiffException {
+                return algorithm.diff(original, revised);
+            }
+
+            @Override
+            public boolean comparesByEquals() {
+                return true;
+            }
+        };
+    }
+
+    @Test
+    public void testDiffWithHashingStrategy() throws DiffException {
+        List<String> original = Arrays.asList("a", "B", "c", "d");
+        List<String> revised = Arrays.asList("A", "b", "x", "D");
+        final Patch<String> patch = DiffUtils.diff(original, revised, HashingStrategy.comparing(String::toLowerCase),
+                new HistogramDiff<>(), 0);
+        assertEquals(1, patch.getDeltas().size());
+        assertEquals("[ChangeDelta, position: 2, lines: [c] to [x]]", patch.getDeltas().get(0).toString());
+    }
+
+    @Test
+    public void testDiffFiles() throws DiffException, IOException {
+        Path original = folder.newFile("original.txt").toPath();
+        Path revised = folder.newFile("revised.txt").toPath();
+        Files.write(original, "a\nb\nc\nd\ne\n".getBytes(StandardCharsets.UTF_8));
+        Files.write(revised, "a\r\nb\r\nx\r\nd\r\ne\r\nf".getBytes(StandardCharsets.UTF_8));
+
+        final Patch<String> patch = DiffUtils.diff(original, revised, 1);
+        assertEquals(DiffUtils.diff(Files.readAllLines(original), Files.readAllLines(revised), 1).toString(),
+                patch.toString());
+        assertEquals(2, patch.getDeltas().size());
+        assertEquals("[ChangeDelta, position: 2, lines: [c] to [x]]", patch.getDeltas().get(0).toString());
+        assertEquals(Arrays.asList("b"), patch.getDeltas().get(0).getOriginal().getBefore());
+    }
 }
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class MappedTextTest {
+
+    @Test
+    public void testLines() {
+        assertEquals(Arrays.asList("a", "", "b", "c"), text("a\n\r\nb\r\nc").lines(StandardCharsets.UTF_8));
+        assertEquals(Arrays.asList("a", "b"), text("a\nb\n").lines(StandardCharsets.UTF_8));
+        assertEquals(Arrays.asList("", "äöü"), text("\näöü").lines(StandardCharsets.UTF_8));
+        assertEquals(Collections.emptyList(), text("").lines(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testIntern() {
+        final int[][] ids = MappedText.intern(text("a\nb\r\na\nab\n"), text("b\nc\na"));
+        assertArrayEquals(new int[]{0, 1, 0, 2}, ids[0]);
+        assertArrayEquals(new int[]{1, 3, 0}, ids[1]);
+    }
+
+    private static MappedText text(String content) {
+        return MappedText.of(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,112 @@
+package com.github.difflib;
+
+import com.github.difflib.algorithm.Change;
+import com.github.difflib.algorithm.DiffException;
+import com.github.difflib.patch.Patch;
+import com.github.difflib.patch.PatchFailedException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PreparedDiffTest {
+
+    private static List<String> revise(List<String> base, Random random) {
+        List<String> revised = new ArrayList<>(base);
+        for (int i = random.nextInt(10); i >= 0; i--) {
+            int position = random.nextInt(revised.size());
+            switch (random.nextInt(3)) {
+                case 0:
+                    revised.remove(position);
+                    break;
+                case 1:
+                    revised.add(position, "new " + random.nextInt(5));
+                    break;
+                default:
+                    revised.set(position, "changed " + random.nextInt(5));
+                    break;
+            }
+        }
+        return revised;
+    }
+
+    private static List<String> base(Random random) {
+        List<String> base = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            // unique lines mixed with frequent ones like in config files
+            base.add(random.nextInt(3) == 0 ? "}" : "key" + i + " = " + random.nextInt(10));
+        }
+        return base;
+    }
+
+    @Test
+    public void testSimpleDiff() throws DiffException {
+        PreparedDiff<String> prepared = new PreparedDiff<>(asList("a", "b", "c", "d"));
+        List<Change> changes = prepared.changes(asList("a", "x", "c", "d", "e"));
+        assertEquals(2, changes.size());
+        assertEquals(1, changes.get(0).startOriginal);
+        assertEquals(4, changes.get(1).startOriginal);
+        assertTrue(prepared.changes(asList("a", "b", "c", "d")).isEmpty());
+    }
+
+    @Test
+    public void testManyRevisions() throws DiffException, PatchFailedException {
+        Random random = new Random(13);
+        List<String> base = base(random);
+        PreparedDiff<String> prepared = new PreparedDiff<>(base);
+        for (int i = 0; i < 100; i++) {
+            List<String> revised = revise(base, random);
+            Patch<String> patch = prepared.diff(revised, 1);
+            assertEquals(revised, DiffUtils.patch(base, patch));
+            assertEquals(base, DiffUtils.unpatch(revised, patch));
+        }
+    }
+
+    @Test
+    public void testMovedUniqueLines() throws DiffException, PatchFailedException {
+        List<String> base = asList("a", "b", "c", "d", "e");
+        List<String> revised = asList("d", "b", "c", "a", "e");
+        Patch<String> patch = new PreparedDiff<>(base).diff(revised, 0);
+        assertEquals(revised, DiffUtils.patch(base, patch));
+    }
+
+    @Test
+    public void testConcurrentUse() throws Exception {
+        Random random = new Random(17);
+        List<String> base = base(random);
+        PreparedDiff<String> prepared = new PreparedDiff<>(base);
+        List<List<String>> revisions = new ArrayList<>();
+        List<List<Change>> expected = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            List<String> revised = revise(base, random);
+            revisions.add(revised);
+            expected.add(prepared.changes(revised));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<Change>>> futures = new ArrayList<>();
+            for (List<String> revised : revisions) {
+                futures.add(executor.submit(() -> prepared.changes(revised)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                List<Change> changes = futures.get(i).get();
+                assertEquals(expected.get(i).size(), changes.size());
+                for (int c = 0; c < changes.size(); c++) {
+                    assertEquals(expected.get(i).get(c).startOriginal, changes.get(c).startOriginal);
+                    assertEquals(expected.get(i).get(c).endRevised, changes.get(c).endRevised);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib;
+
+import com.github.difflib.algorithm.DiffException;
+import com.github.difflib.algorithm.myers.MyersDiff;
+import com.github.difflib.patch.Delta;
+import com.github.difflib.patch.Patch;
+import com.github.difflib.patch.PatchFailedException;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StreamingDiffTest {
+
+    @Test
+    public void testSmallChangesAreMinimal() throws DiffException {
+        List<Integer> original = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            original.add(i);
+        }
+        List<Integer> revised = new ArrayList<>(original);
+        revised.set(100, -1);
+        revised.remove(5000);
+        revised.add(9000, -2);
+
+        final Patch<Integer> patch = new Patch<>();
+        new StreamingDiff<>(new MyersDiff<Integer>(), 64).diff(original.iterator(), revised.iterator(), patch::addDelta);
+        assertEquals(3, patch.getDeltas().size());
+        assertEquals("[ChangeDelta, position: 100, lines: [100] to [-1]]", patch.getDeltas().get(0).toString());
+        assertEquals("[DeleteDelta, position: 5000, lines: [5000]]", patch.getDeltas().get(1).toString());
+        assertEquals("[InsertDelta, position: 9001, lines: [-2]]", patch.getDeltas().get(2).toString());
+    }
+
+    @Test
+    public void testRandomSequences() throws DiffException, PatchFailedException {
+        Random random = new Random(7);
+        for (int run = 0; run < 100; run++) {
+            List<Integer> original = new ArrayList<>();
+            for (int i = random.nextInt(3000); i > 0; i--) {
+                original.add(random.nextInt(1 + random.nextInt(100)));
+            }
+            List<Integer> revised = new ArrayList<>(original);
+            for (int i = random.nextInt(100); i > 0; i--) {
+                int pos = revised.isEmpty() ? 0 : random.nextInt(revised.size());
+                if (random.nextBoolean() && !revised.isEmpty()) {
+                    revised.remove(pos);
+                } else {
+                    for (int j = random.nextInt(random.nextInt(200) + 1); j >= 0; j--) {
+                        revised.add(pos, random.nextInt(100));
+                    }
+                }
+            }
+            final int window = 2 + random.nextInt(300);
+            final Counting<Integer> originalIt = new Counting<>(original.iterator());
+            final Counting<Integer> revisedIt = new Counting<>(revised.iterator());
+            final Patch<Integer> patch = new Patch<>();
+            new StreamingDiff<>(new MyersDiff<Integer>(), window).diff(originalIt, revisedIt, delta -> {
+                // never more than one window beyond the delta is read
+                assertTrue(originalIt.count <= delta.getOriginal().getPosition() + window);
+                assertTrue(revisedIt.count <= delta.getRevised().getPosition() + window);
+                patch.addDelta(delta);
+            });
+            assertEquals(revised, patch.applyTo(original));
+        }
+    }
+
+    @Test
+    public void testCustomEqualizer() throws DiffException {
+        final List<Delta<String>> deltas = new ArrayList<>();
+        new StreamingDiff<String>(new MyersDiff<>(String::equalsIgnoreCase), 8)
+                .diff(Arrays.asList("A", "b").iterator(), Arrays.asList("a", "b").iterator(), deltas::add);
+        assertTrue(deltas.isEmpty());
+
+        new StreamingDiff<String>(new MyersDiff<>(String::equalsIgnoreCase), 4)
+                .diff(Arrays.asList("A", "B", "c", "d", "E", "f").iterator(),
+                        Arrays.asList("a", "b", "C", "x", "e", "F").iterator(), deltas::add);
+        assertEquals(1, deltas.size());
+        assertEquals("[ChangeDelta, position: 3, lines: [d] to [x]]", deltas.get(0).toString());
+    }
+
+    @Test
+    public void testDiffReaders() throws DiffException, IOException, PatchFailedException {
+        final List<Delta<String>> deltas = new ArrayList<>();
+        DiffUtils.diff(new StringReader("a\nb\nc\nd\n"), new StringReader("a\nx\nc\nd\ne\n"), 16, deltas::add);
+        final Patch<String> patch = new Patch<>();
+        deltas.forEach(patch::addDelta);
+        assertEquals(Arrays.asList("a", "x", "c", "d", "e"), patch.applyTo(Arrays.asList("a", "b", "c", "d")));
+        assertEquals(2, deltas.size());
+    }
+
+    private static final class Counting<T> implements Iterator<T> {
+
+        private final Iterator<T> source;
+        int count;
+
+        Counting(Iterator<T> source) {
+            this.source = source;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return source.hasNext();
+        }
+
+        @Override
+        public T next() {
+            count++;
+            return source.next();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.github.difflib.algorithm;
+
+import com.github.difflib.DiffUtils;
+import com.github.difflib.algorithm.myers.MyersDiff;
+import com.github.difflib.algorithm.myers.MyersDiffWithLinearSpace;
+import com.github.difflib.patch.DeltaType;
+import com.github.difflib.patch.Patch;
+import com.github.difflib.patch.PatchFailedException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CompactChangesTest {
+
+    private static void assertSameChanges(List<Change> expected, CompactChanges actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Change change = expected.get(i);
+            assertEquals(change.deltaType, actual.getType(i));
+            assertEquals(change.startOriginal, actual.getStartOriginal(i));
+            assertEquals(change.endOriginal, actual.getEndOriginal(i));
+            assertEquals(change.startRevised, actual.getStartRevised(i));
+            assertEquals(change.endRevised, actual.getEndRevised(i));
+        }
+    }
+
+    private static List<Integer> random(Random random, int size) {
+        List<Integer> list = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            list.add(random.nextInt(8));
+        }
+        return list;
+    }
+
+    @Test
+    public void testAppendMergesAdjacentChanges() {
+        CompactChanges changes = new CompactChanges(0);
+        changes.append(1, 2, 1, 1);
+        changes.append(2, 2, 1, 3);
+        changes.append(5, 5, 6, 7);
+        assertEquals(2, changes.size());
+        assertEquals(DeltaType.CHANGE, changes.getType(0));
+        assertEquals(1, changes.getStartOriginal(0));
+        assertEquals(3, changes.getEndRevised(0));
+        assertEquals(DeltaType.INSERT, changes.getType(1));
+
+        CompactChanges other = new CompactChanges();
+        other.append(5, 6, 7, 7);
+        other.append(8, 9, 8, 8);
+        changes.appendAll(other);
+        assertEquals(3, changes.size());
+        assertEquals(DeltaType.CHANGE, changes.getType(1));
+        assertEquals(6, changes.getEndOriginal(1));
+
+        changes.shift(10, 20);
+        assertEquals(18, changes.getStartOriginal(2));
+        assertEquals(28, changes.getStartRevised(2));
+    }
+
+    @Test
+    public void testChangesOfRanges() {
+        assertEquals(DeltaType.INSERT, Changes.of(2, 2, 3, 5).deltaType);
+        assertEquals(DeltaType.DELETE, Changes.of(2, 4, 3, 3).deltaType);
+        assertEquals(DeltaType.CHANGE, Changes.of(2, 4, 3, 5).deltaType);
+
+        List<Change> shifted = new ArrayList<>();
+        Changes.addShifted(shifted, asList(Changes.of(0, 1, 0, 0), Changes.of(3, 3, 2, 4)), 10, 20);
+        assertEquals(2, shifted.size());
+        assertEquals(DeltaType.DELETE, shifted.get(0).deltaType);
+        assertEquals(10, shifted.get(0).startOriginal);
+        assertEquals(20, shifted.get(0).endRevised);
+        assertEquals(DeltaType.INSERT, shifted.get(1).deltaType);
+        assertEquals(13, shifted.get(1).endOriginal);
+        assertEquals(24, shifted.get(1).endRevised);
+    }
+
+    @Test
+    public void testListConversion() {
+        List<Change> list = asList(new Change(DeltaType.DELETE, 0, 2, 0, 0),
+                new Change(DeltaType.CHANGE, 4, 5, 2, 4));
+        CompactChanges changes = CompactChanges.of(list);
+        assertSameChanges(list, changes);
+        assertSameChanges(changes.asList(), CompactChanges.of(changes.toList()));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testIndexOutOfBounds() {
+        new CompactChanges().getStartOriginal(0);
+    }
+
+    @Test
+    public void testAlgorithmsEmitCompactChanges() throws DiffException {
+        Random random = new Random(19);
+        for (int round = 0; round < 50; round++) {
+            List<Integer> original = random(random, 60);
+            List<Integer> revised = random(random, 60);
+            MyersDiffWithLinearSpace<Integer> linear = new MyersDiffWithLinearSpace<>();
+            assertSameChanges(linear.diff(original, revised), linear.diffCompact(original, revised));
+            MyersDiff<Integer> myers = new MyersDiff<>();
+            assertSameChanges(myers.diff(original, revised), myers.diffCompact(original, revised));
+        }
+    }
+
+    @Test
+    public void testPatchWrapsCompactChanges() throws DiffException, PatchFailedException {
+        Random random = new Random(23);
+        for (int round = 0; round < 50; round++) {
+            List<Integer> original = random(random, 40);
+            List<Integer> revised = random(random, 40);
+            CompactChanges changes = DiffUtils.diffCompact(original, revised, new MyersDiffWithLinearSpace<>());
+            Patch<Integer> patch = Patch.of(original, revised, changes, 1);
+            assertEquals(revised, DiffUtils.patch(original, patch));
+            assertEquals(original, DiffUtils.unpatch(revised, patch));
+            assertSameChanges(changes.asList(), patch.toCompactChanges());
+            assertSameChanges(changes.asList(),
+                    DiffUtils.diff(original, revised, new MyersDiffWithLinearSpace<>(), 0).toCompactChanges());
+        }
+    }
+
+    @Test
+    public void testDiffCompactOfAppendedLines() throws DiffException {
+        CompactChanges changes = DiffUtils.diffCompact(asList("a", "b"), asList("a", "b", "c"), new MyersDiff<>());
+        assertEquals(1, changes.size());
+        assertEquals(DeltaType.INSERT, changes.getType(0));
+        assertTrue(DiffUtils.diffCompact(asList("a"), asList("a"), new MyersDiff<>()).isEmpty());
+    }
+}
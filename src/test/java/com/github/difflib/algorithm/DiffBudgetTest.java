@@ -0,0 +1,144 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.algorithm;
+
+import com.github.difflib.algorithm.histogram.HistogramDiff;
+import com.github.difflib.algorithm.myers.MyersDiff;
+import com.github.difflib.algorithm.myers.MyersDiffWithLinearSpace;
+import com.github.difflib.patch.Patch;
+import com.github.difflib.patch.PatchFailedException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DiffBudgetTest {
+
+    private static final List<DiffAlgorithm<Integer>> ALGORITHMS = new ArrayList<>();
+
+    static {
+        ALGORITHMS.add(new MyersDiff<>());
+        ALGORITHMS.add(new MyersDiffWithLinearSpace<>());
+        ALGORITHMS.add(new HistogramDiff<>());
+    }
+
+    @Test
+    public void testWorkLimitExceeded() {
+        for (DiffAlgorithm<Integer> algorithm : ALGORITHMS) {
+            DiffBudget budget = DiffBudget.create().maxWork(10_000).build();
+            try {
+                algorithm.diff(randomList(new Random(1), 5000), randomList(new Random(2), 5000), budget);
+                fail("budget not checked");
+            } catch (DiffBudgetExceededException e) {
+                assertEquals("work limit of 10000 exceeded", e.getMessage());
+                assertTrue(budget.isExceeded());
+            } catch (DiffException e) {
+                fail(e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testBestEffortResultIsValid() throws DiffException, PatchFailedException {
+        Random random = new Random(3);
+        for (DiffAlgorithm<Integer> algorithm : ALGORITHMS) {
+            for (int run = 0; run < 50; run++) {
+                List<Integer> original = randomList(random, random.nextInt(3000));
+                List<Integer> revised = randomList(random, random.nextInt(3000));
+                DiffBudget budget = DiffBudget.create().maxWork(random.nextInt(20_000)).bestEffort(true).build();
+                List<Change> changes = algorithm.diff(original, revised, budget);
+                assertEquals(revised, Patch.generate(original, revised, changes, 0).applyTo(original));
+            }
+        }
+    }
+
+    @Test
+    public void testWithinBudgetSameResult() throws DiffException {
+        List<Integer> original = randomList(new Random(4), 500);
+        List<Integer> revised = randomList(new Random(5), 500);
+        DiffBudget budget = DiffBudget.create().maxWork(Long.MAX_VALUE).timeout(1, TimeUnit.HOURS).build();
+        assertEquals(new MyersDiff<Integer>().diff(original, revised).size(),
+                new MyersDiff<Integer>().diff(original, revised, budget).size());
+    }
+
+    @Test
+    public void testAlgorithmReusableAfterExceededBudget() throws DiffException {
+        List<Integer> original = randomList(new Random(12), 2000);
+        List<Integer> revised = randomList(new Random(13), 2000);
+        for (DiffAlgorithm<Integer> algorithm : ALGORITHMS) {
+            List<Change> expected = algorithm.diff(original, revised);
+            DiffBudget budget = DiffBudget.create().maxWork(100).build();
+            try {
+                algorithm.diff(original, revised, budget);
+                fail("budget not checked");
+            } catch (DiffBudgetExceededException e) {
+                assertTrue(budget.isExceeded());
+            }
+            // the exceeded budget belonged to the call only
+            assertEquals(expected.size(), algorithm.diff(original, revised).size());
+        }
+    }
+
+    @Test
+    public void testDefaultChargesSizeOnce() throws DiffException {
+        DiffAlgorithm<Integer> algorithm = (original, revised) -> new ArrayList<>();
+        DiffBudget budget = DiffBudget.create().build();
+        algorithm.diff(randomList(new Random(14), 30), randomList(new Random(15), 20), budget);
+        assertEquals(50, budget.getWork());
+    }
+
+    @Test(expected = DiffBudgetExceededException.class)
+    public void testCancelled() throws DiffException {
+        DiffBudget budget = DiffBudget.create().build();
+        budget.cancel();
+        new MyersDiff<Integer>().diff(randomList(new Random(6), 5000), randomList(new Random(7), 5000), budget);
+    }
+
+    @Test(expected = DiffBudgetExceededException.class)
+    public void testDeadline() throws DiffException {
+        DiffBudget budget = DiffBudget.create().timeout(0, TimeUnit.MILLISECONDS).build();
+        new HistogramDiff<Integer>().diff(randomList(new Random(8), 5000), randomList(new Random(9), 5000), budget);
+    }
+
+    @Test
+    public void testInterrupted() throws DiffException {
+        DiffBudget budget = DiffBudget.create().build();
+        Thread.currentThread().interrupt();
+        try {
+            new MyersDiffWithLinearSpace<Integer>().diff(randomList(new Random(10), 5000),
+                    randomList(new Random(11), 5000), budget);
+            fail("interruption not checked");
+        } catch (DiffBudgetExceededException e) {
+            assertEquals("diff interrupted", e.getMessage());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    private static List<Integer> randomList(Random random, int size) {
+        List<Integer> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(random.nextInt(50));
+        }
+        return list;
+    }
+}
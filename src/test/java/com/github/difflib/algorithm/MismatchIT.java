@@ -0,0 +1,62 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.algorithm;
+
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.URL;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs against the packaged multi-release jar on Java 9 or newer, see the multi-release-java9 profile. The versioned
+ * Mismatch has to be loaded from META-INF/versions/9 and to behave like the Java 8 one.
+ */
+public class MismatchIT {
+
+    @Test
+    public void testVersionedClassIsLoaded() throws IOException {
+        URL resource = Mismatch.class.getResource("Mismatch.class");
+        assertEquals("jar", resource.getProtocol());
+        assertTrue(resource.getPath(),
+                resource.getPath().endsWith("!/META-INF/versions/9/com/github/difflib/algorithm/Mismatch.class"));
+        try (DataInputStream in = new DataInputStream(Mismatch.class.getResourceAsStream("Mismatch.class"))) {
+            assertEquals(0xCAFEBABE, in.readInt());
+            in.readUnsignedShort();
+            // class files of Java 9 have the major version 53
+            assertEquals(53, in.readUnsignedShort());
+        }
+    }
+
+    @Test
+    public void testVersionedClassMatchesRanges() {
+        int[] a = new int[1000];
+        int[] b = new int[1000];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = i;
+            b[i] = i;
+        }
+        b[700] = -1;
+        assertEquals(700, Mismatch.commonPrefix(a, 0, b, 0, 1000));
+        assertEquals(299, Mismatch.commonSuffix(a, 1000, b, 1000, 1000));
+        assertEquals(3, Mismatch.commonPrefix(a, 10, b, 10, 3));
+        assertEquals(0, Mismatch.commonSuffix(a, 701, b, 701, 5));
+        assertEquals(0, Mismatch.commonPrefix(a, 0, a, 0, -1));
+    }
+}
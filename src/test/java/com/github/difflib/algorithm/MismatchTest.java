@@ -0,0 +1,57 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.algorithm;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class MismatchTest {
+
+    @Test
+    public void testCommonPrefix() {
+        int[] a = {1, 2, 3, 4, 5};
+        int[] b = {9, 2, 3, 4, 7};
+        assertEquals(3, Mismatch.commonPrefix(a, 1, b, 1, 4));
+        assertEquals(2, Mismatch.commonPrefix(a, 1, b, 1, 2));
+        assertEquals(0, Mismatch.commonPrefix(a, 0, b, 0, 5));
+        assertEquals(0, Mismatch.commonPrefix(a, 1, b, 1, -1));
+    }
+
+    @Test
+    public void testCommonSuffix() {
+        int[] a = {1, 2, 3, 4, 5};
+        int[] b = {9, 2, 3, 4, 5};
+        assertEquals(4, Mismatch.commonSuffix(a, 5, b, 5, 5));
+        assertEquals(2, Mismatch.commonSuffix(a, 5, b, 5, 2));
+        assertEquals(0, Mismatch.commonSuffix(a, 1, b, 1, 1));
+        assertEquals(0, Mismatch.commonSuffix(a, 5, b, 5, -1));
+    }
+
+    @Test
+    public void testLongRuns() {
+        int[] a = new int[1000];
+        int[] b = new int[1000];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = i;
+            b[i] = i;
+        }
+        b[700] = -1;
+        assertEquals(700, Mismatch.commonPrefix(a, 0, b, 0, 1000));
+        assertEquals(299, Mismatch.commonSuffix(a, 1000, b, 1000, 1000));
+        assertEquals(1000, Mismatch.commonPrefix(a, 0, a, 0, 1000));
+    }
+}
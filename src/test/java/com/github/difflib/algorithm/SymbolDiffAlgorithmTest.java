@@ -0,0 +1,108 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.algorithm;
+
+import com.github.difflib.algorithm.adaptive.AdaptiveDiff;
+import com.github.difflib.algorithm.histogram.HistogramDiff;
+import com.github.difflib.algorithm.lcs.HuntSzymanskiDiff;
+import com.github.difflib.algorithm.myers.MyersDiff;
+import com.github.difflib.algorithm.myers.MyersDiffWithLinearSpace;
+import com.github.difflib.algorithm.myers.ParallelMyersDiff;
+import com.github.difflib.algorithm.patience.AnchoredDiff;
+import com.github.difflib.algorithm.patience.PatienceDiff;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class SymbolDiffAlgorithmTest {
+
+    private static final List<DiffAlgorithm<Integer>> ALGORITHMS = Arrays.asList(
+            new MyersDiff<>(),
+            new MyersDiffWithLinearSpace<>(),
+            new ParallelMyersDiff<>(),
+            new HistogramDiff<>(),
+            new PatienceDiff<>(),
+            new AnchoredDiff<>(new MyersDiff<>()),
+            new HuntSzymanskiDiff<>(),
+            new AdaptiveDiff<>());
+
+    private static String toString(List<Change> changes) {
+        StringBuilder builder = new StringBuilder();
+        for (Change change : changes) {
+            builder.append(change.deltaType).append(' ').append(change.startOriginal).append('-')
+                    .append(change.endOriginal).append(' ').append(change.startRevised).append('-')
+                    .append(change.endRevised).append('\n');
+        }
+        return builder.toString();
+    }
+
+    private static int[] random(Random random, int size, int symbols, int offset) {
+        int[] sequence = new int[size];
+        for (int i = 0; i < size; i++) {
+            sequence[i] = offset + random.nextInt(symbols) * 1000;
+        }
+        return sequence;
+    }
+
+    private static List<Integer> boxed(int[] symbols) {
+        List<Integer> list = new ArrayList<>();
+        for (int symbol : symbols) {
+            list.add(symbol);
+        }
+        return list;
+    }
+
+    @Test
+    public void testSymbolsGiveSameChangesAsElements() throws DiffException {
+        Random random = new Random(29);
+        for (DiffAlgorithm<Integer> algorithm : ALGORITHMS) {
+            for (int round = 0; round < 30; round++) {
+                // sparse and negative symbols, like the ids of a region of a large table
+                int[] original = random(random, random.nextInt(200), 1 + random.nextInt(30), -7000);
+                int[] revised = random(random, random.nextInt(200), 1 + random.nextInt(30), -7000);
+                assertEquals(algorithm.getClass().getSimpleName(),
+                        toString(algorithm.diff(boxed(original), boxed(revised))),
+                        toString(((SymbolDiffAlgorithm) algorithm).diff(original, revised)));
+            }
+        }
+    }
+
+    @Test
+    public void testDiffSymbolsWithPlainAlgorithm() throws DiffException {
+        int[] original = {1, 2, 3, 4};
+        int[] revised = {1, 5, 3};
+        DiffAlgorithm<Integer> plain = (o, r) -> new MyersDiff<Integer>().diff(o, r);
+        assertEquals(toString(new MyersDiff<Integer>().diff(original, revised)),
+                toString(SymbolDiffAlgorithm.diffSymbols(plain, original, revised, DiffBudget.unlimited())));
+    }
+
+    @Test
+    public void testFallbackGetsSymbols() throws DiffException {
+        Random random = new Random(31);
+        int[] original = random(random, 300, 3, 0);
+        int[] revised = random(random, 300, 3, 0);
+        List<Change> expected = new HistogramDiff<Integer>(new MyersDiff<>(), 1).diff(boxed(original), boxed(revised));
+        DiffAlgorithm<Integer> plain = (o, r) -> new MyersDiff<Integer>().diff(o, r);
+        assertEquals(toString(expected), toString(new HistogramDiff<>(plain, 1).diff(original, revised)));
+        assertEquals(toString(expected),
+                toString(new HistogramDiff<Integer>(new MyersDiff<>(), 1).diff(original, revised)));
+    }
+}
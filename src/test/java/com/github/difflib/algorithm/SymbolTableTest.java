@@ -0,0 +1,86 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.algorithm;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class SymbolTableTest {
+
+    @Test
+    public void testInternAssignsDenseIds() {
+        List<String> original = Arrays.asList("A", "B", "C", "A");
+        List<String> revised = Arrays.asList("C", new String("A"), "D");
+        int[][] ids = SymbolTable.intern(original, revised);
+        assertArrayEquals(new int[]{0, 1, 2, 0}, ids[0]);
+        assertArrayEquals(new int[]{2, 0, 3}, ids[1]);
+    }
+
+    @Test
+    public void testCompactRenumbersSparseSymbols() {
+        int[] original = {0, 2, 1};
+        int[] revised = {2, 3};
+        int[][] dense = SymbolTable.compact(original, revised);
+        assertSame(original, dense[0]);
+        assertSame(revised, dense[1]);
+
+        int[][] sparse = SymbolTable.compact(new int[]{70_000, -5, 12}, new int[]{12, 70_000});
+        assertArrayEquals(new int[]{2, 0, 1}, sparse[0]);
+        assertArrayEquals(new int[]{1, 2}, sparse[1]);
+    }
+
+    @Test
+    public void testInternNullElements() {
+        SymbolTable<String> table = new SymbolTable<>();
+        assertArrayEquals(new int[]{0, 1, 0}, table.intern(Arrays.asList(null, "A", null)));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    public void testInternByKeyComputesKeyOncePerElement() {
+        final int[] calls = new int[1];
+        SymbolTable<String> table = new SymbolTable<>(HashingStrategy.<String>comparing(line -> {
+            calls[0]++;
+            return line.trim();
+        }), 4);
+        assertArrayEquals(new int[]{0, 1, 0}, table.intern(Arrays.asList("a", "b", " a ")));
+        assertArrayEquals(new int[]{1, 2}, table.intern(Arrays.asList("b  ", "c")));
+        assertEquals(5, calls[0]);
+        assertEquals(3, table.size());
+    }
+
+    @Test
+    public void testInternByStrategy() {
+        SymbolTable<String> table = new SymbolTable<>(new HashingStrategy<String>() {
+            @Override
+            public int hash(String element) {
+                return element.toLowerCase().hashCode();
+            }
+
+            @Override
+            public boolean equals(String first, String second) {
+                return first.equalsIgnoreCase(second);
+            }
+        }, 4);
+        assertArrayEquals(new int[]{0, 1, 0, 1}, table.intern(Arrays.asList("a", "B", "A", "b")));
+    }
+}
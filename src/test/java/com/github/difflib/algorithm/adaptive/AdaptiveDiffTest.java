@@ -0,0 +1,122 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.algorithm.adaptive;
+
+import com.github.difflib.algorithm.DiffException;
+import com.github.difflib.algorithm.adaptive.AdaptiveDiff.Engine;
+import com.github.difflib.algorithm.adaptive.AdaptiveDiff.Statistics;
+import com.github.difflib.patch.Patch;
+import com.github.difflib.patch.PatchFailedException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AdaptiveDiffTest {
+
+    @Test
+    public void testStatistics() {
+        Statistics stats = new Statistics(new int[]{0, 1, 2, 1, 3, 0}, new int[]{0, 4, 1, 1, 5, 0}, 6);
+        assertEquals(1, stats.prefix);
+        assertEquals(1, stats.suffix);
+        assertEquals(8, stats.size());
+        assertEquals(4, stats.matchingPairs);
+        assertEquals(0, stats.uniqueCommon);
+        assertEquals(4, stats.editLowerBound);
+    }
+
+    @Test
+    public void testSmallAndSimilarInputsUseMyers() {
+        Random random = new Random(1);
+        assertTrue(statistics(random, 100, 1_000_000, 0.1).isMyersFirst());
+        assertTrue(statistics(random, 10_000, 1_000_000, 0.02).isMyersFirst());
+        assertFalse(statistics(random, 10_000, 1_000_000, 0.5).isMyersFirst());
+    }
+
+    @Test
+    public void testRewrittenInputUsesHuntSzymanski() {
+        assertEquals(Engine.HUNT_SZYMANSKI, statistics(new Random(2), 10_000, 1_000_000, 0.9).select());
+    }
+
+    @Test
+    public void testRepetitiveInputUsesHistogramOrMyers() {
+        Random random = new Random(3);
+        assertEquals(Engine.MYERS, statistics(random, 10_000, 4, 0.9).select());
+
+        int[] a = randomSequence(random, 10_000, 4);
+        int[] b = randomSequence(random, 10_000, 4);
+        a[5000] = 4;
+        b[5000] = 4;
+        assertEquals(Engine.HISTOGRAM, new Statistics(a, b, 5).select());
+    }
+
+    @Test
+    public void testDiffIsValid() throws DiffException, PatchFailedException {
+        Random random = new Random(4);
+        for (int run = 0; run < 200; run++) {
+            final int alphabet = random.nextBoolean() ? 1 + random.nextInt(10) : 1_000_000;
+            final int[] a = randomSequence(random, random.nextInt(2000), alphabet);
+            final int[] b = mutate(random, a, alphabet, random.nextDouble());
+            List<Integer> original = toList(a);
+            List<Integer> revised = toList(b);
+            final Patch<Integer> patch = Patch.generate(original, revised, new AdaptiveDiff<Integer>().diff(original, revised), 0);
+            assertEquals(revised, patch.applyTo(original));
+        }
+        List<String> original = Arrays.asList("a", "b", "c");
+        assertEquals(0, new AdaptiveDiff<String>().diff(original, original).size());
+        assertEquals(1, new AdaptiveDiff<String>().diff(original, Arrays.asList("a", "c")).size());
+    }
+
+    private static Statistics statistics(Random random, int length, int alphabet, double changeRate) {
+        final int[] a = randomSequence(random, length, alphabet);
+        return new Statistics(a, mutate(random, a, alphabet, changeRate), alphabet);
+    }
+
+    private static int[] randomSequence(Random random, int length, int alphabet) {
+        final int[] sequence = new int[length];
+        for (int i = 0; i < length; i++) {
+            sequence[i] = random.nextInt(alphabet);
+        }
+        return sequence;
+    }
+
+    /**
+     * Replaces about the given fraction of the elements.
+     */
+    private static int[] mutate(Random random, int[] sequence, int alphabet, double changeRate) {
+        final int[] result = sequence.clone();
+        for (int i = 0; i < result.length; i++) {
+            if (random.nextDouble() < changeRate) {
+                result[i] = random.nextInt(alphabet);
+            }
+        }
+        return result;
+    }
+
+    private static List<Integer> toList(int[] values) {
+        List<Integer> list = new ArrayList<>(values.length);
+        for (int value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.algorithm.histogram;
+
+import com.github.difflib.algorithm.Change;
+import com.github.difflib.algorithm.DiffAlgorithm;
+import com.github.difflib.algorithm.DiffException;
+import com.github.difflib.patch.DeltaType;
+import com.github.difflib.patch.Patch;
+import com.github.difflib.patch.PatchFailedException;
+import org.eclipse.jgit.diff.Edit;
+import org.eclipse.jgit.diff.MyersDiff;
+import org.eclipse.jgit.diff.Sequence;
+import org.eclipse.jgit.diff.SequenceComparator;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class HistogramDiffTest {
+
+    @Test
+    public void testDiff() throws DiffException, PatchFailedException {
+        List<String> orgList = Arrays.asList("A", "B", "C", "A", "B", "B", "A");
+        List<String> revList = Arrays.asList("C", "B", "A", "B", "A", "C");
+        final Patch<String> patch = Patch.generate(orgList, revList, new HistogramDiff<String>().diff(orgList, revList), 1);
+        assertNotNull(patch);
+        assertEquals(3, patch.getDeltas().size());
+        assertEquals("Patch{deltas=[[DeleteDelta, position: 0, lines: [A, B]], [DeleteDelta, position: 3, lines: [A, B]], [InsertDelta, position: 7, lines: [B, A, C]]]}", patch.toString());
+
+        List<String> patched = patch.applyTo(orgList);
+        assertEquals(revList, patched);
+    }
+
+    @Test
+    public void testDiffSameAsJGitHistogramDiff() throws DiffException, PatchFailedException {
+        Random random = new Random(11);
+        for (int run = 0; run < 300; run++) {
+            List<Integer> original = new ArrayList<>();
+            for (int i = random.nextInt(100); i > 0; i--) {
+                original.add(random.nextInt(30));
+            }
+            List<Integer> revised = new ArrayList<>(original);
+            for (int i = random.nextInt(15); i > 0; i--) {
+                int pos = revised.isEmpty() ? 0 : random.nextInt(revised.size());
+                if (random.nextBoolean() && !revised.isEmpty()) {
+                    revised.remove(pos);
+                } else {
+                    revised.add(pos, random.nextInt(30));
+                }
+            }
+            Patch<Integer> expected = Patch.generate(original, revised,
+                    new com.github.difflib.algorithm.jgit.HistogramDiff<Integer>().diff(original, revised), 0);
+            Patch<Integer> actual = Patch.generate(original, revised,
+                    new HistogramDiff<Integer>().diff(original, revised), 0);
+
+            assertEquals(expected.toString(), actual.toString());
+            assertEquals(revised, actual.applyTo(original));
+        }
+    }
+
+    @Test
+    public void testDiffWithFrequentElementSameAsJGitHistogramDiff() throws DiffException, PatchFailedException {
+        Random random = new Random(5);
+        for (int run = 0; run < 500; run++) {
+            int size = 100 + random.nextInt(300);
+            List<Integer> original = new ArrayList<>();
+            List<Integer> revised = new ArrayList<>();
+            // one element occurs more often than the maximum chain length, its regions go to the fallback
+            for (int i = 0; i < size; i++) {
+                original.add(random.nextInt(4) == 0 ? -1 : random.nextInt(size));
+                revised.add(random.nextInt(4) == 0 ? -1 : random.nextInt(size));
+            }
+            Patch<Integer> expected = Patch.generate(original, revised,
+                    new com.github.difflib.algorithm.jgit.HistogramDiff<Integer>().diff(original, revised), 0);
+            Patch<Integer> actual = Patch.generate(original, revised,
+                    new HistogramDiff<>(new JGitMyersDiff(), HistogramDiff.DEFAULT_MAX_CHAIN_LENGTH)
+                            .diff(original, revised), 0);
+            assertEquals(expected.toString(), actual.toString());
+
+            Patch<Integer> patch = Patch.generate(original, revised,
+                    new HistogramDiff<Integer>().diff(original, revised), 0);
+            assertEquals(revised, patch.applyTo(original));
+        }
+    }
+
+    @Test
+    public void testDiffUsesFallbackForLongChains() throws DiffException, PatchFailedException {
+        List<String> orgList = Arrays.asList("A", "x", "A", "y", "A", "A");
+        List<String> revList = Arrays.asList("A", "A", "z", "A", "A");
+        final Patch<String> patch = Patch.generate(orgList, revList,
+                new HistogramDiff<String>(new com.github.difflib.algorithm.myers.MyersDiff<>(), 2).diff(orgList, revList), 0);
+        assertEquals(revList, patch.applyTo(orgList));
+    }
+
+    /**
+     * JGit's Myers diff as fallback, which aligns edits of equal cost like the JGit bridge does.
+     */
+    private static final class JGitMyersDiff implements DiffAlgorithm<Integer> {
+
+        @Override
+        public List<Change> diff(List<Integer> original, List<Integer> revised) {
+            List<Change> changes = new ArrayList<>();
+            for (Edit edit : MyersDiff.INSTANCE.diff(new IntegerComparator(), new IntegerSequence(original),
+                    new IntegerSequence(revised))) {
+                DeltaType type = edit.getType() == Edit.Type.INSERT ? DeltaType.INSERT
+                        : edit.getType() == Edit.Type.DELETE ? DeltaType.DELETE : DeltaType.CHANGE;
+                changes.add(new Change(type, edit.getBeginA(), edit.getEndA(), edit.getBeginB(), edit.getEndB()));
+            }
+            return changes;
+        }
+    }
+
+    private static final class IntegerSequence extends Sequence {
+
+        private final List<Integer> elements;
+
+        IntegerSequence(List<Integer> elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public int size() {
+            return elements.size();
+        }
+    }
+
+    private static final class IntegerComparator extends SequenceComparator<IntegerSequence> {
+
+        @Override
+        public boolean equals(IntegerSequence a, int ai, IntegerSequence b, int bi) {
+            return a.elements.get(ai).equals(b.elements.get(bi));
+        }
+
+        @Override
+        public int hash(IntegerSequence seq, int index) {
+            return seq.elements.get(index);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.algorithm.lcs;
+
+import com.github.difflib.algorithm.Change;
+import com.github.difflib.algorithm.DiffException;
+import com.github.difflib.algorithm.myers.MyersDiffWithLinearSpace;
+import com.github.difflib.patch.Patch;
+import com.github.difflib.patch.PatchFailedException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class BitParallelLcsDiffTest {
+
+    @Test
+    public void testDiffChars() throws DiffException, PatchFailedException {
+        String original = "{\"name\":\"java-diff-utils\",\"version\":\"2.1\"}";
+        String revised = "{\"name\":\"diff-utils\",\"version\":\"2.2\",\"tags\":[]}";
+        assertMinimalAndValid(toList(original), toList(revised), new BitParallelLcsDiff().diff(original, revised));
+    }
+
+    @Test
+    public void testEmpty() throws DiffException {
+        assertEquals(0, new BitParallelLcsDiff().diff("", "").size());
+        assertEquals(1, new BitParallelLcsDiff().diff("", "abc").size());
+        assertEquals(1, new BitParallelLcsDiff().diff("abc", "").size());
+    }
+
+    @Test
+    public void testRandomChars() throws DiffException, PatchFailedException {
+        Random random = new Random(17);
+        for (int run = 0; run < 300; run++) {
+            String original = randomText(random, random.nextInt(300), 1 + random.nextInt(6));
+            String revised = mutate(random, original, random.nextInt(40));
+            assertMinimalAndValid(toList(original), toList(revised), new BitParallelLcsDiff().diff(original, revised));
+        }
+    }
+
+    @Test
+    public void testLongLinesAreSplit() throws DiffException, PatchFailedException {
+        Random random = new Random(19);
+        String original = randomText(random, 8000, 20);
+        String revised = mutate(random, original, 2000);
+        assertMinimalAndValid(toList(original), toList(revised), new BitParallelLcsDiff().diff(original, revised));
+    }
+
+    @Test
+    public void testLargeAlphabet() throws DiffException, PatchFailedException {
+        int[] original = new int[20000];
+        for (int i = 0; i < original.length; i++) {
+            original[i] = i * 7;
+        }
+        int[] revised = original.clone();
+        revised[5] = -1;
+        revised[19990] = -2;
+        List<Change> changes = new BitParallelLcsDiff().diff(original, revised);
+        assertEquals(2, changes.size());
+        assertMinimalAndValid(toList(original), toList(revised), changes);
+    }
+
+    private static void assertMinimalAndValid(List<Integer> original, List<Integer> revised, List<Change> changes)
+            throws DiffException, PatchFailedException {
+        assertEquals(editCount(new MyersDiffWithLinearSpace<Integer>().diff(original, revised)), editCount(changes));
+        assertEquals(revised, Patch.generate(original, revised, changes, 0).applyTo(original));
+    }
+
+    private static int editCount(List<Change> changes) {
+        int count = 0;
+        for (Change change : changes) {
+            count += change.endOriginal - change.startOriginal + change.endRevised - change.startRevised;
+        }
+        return count;
+    }
+
+    private static List<Integer> toList(String text) {
+        List<Integer> list = new ArrayList<>(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            list.add((int) text.charAt(i));
+        }
+        return list;
+    }
+
+    private static List<Integer> toList(int[] values) {
+        List<Integer> list = new ArrayList<>(values.length);
+        for (int value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    private static String randomText(Random random, int length, int alphabet) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + random.nextInt(alphabet)));
+        }
+        return sb.toString();
+    }
+
+    private static String mutate(Random random, String text, int edits) {
+        StringBuilder sb = new StringBuilder(text);
+        for (int i = 0; i < edits; i++) {
+            int pos = sb.length() == 0 ? 0 : random.nextInt(sb.length());
+            if (random.nextBoolean() && sb.length() > 0) {
+                sb.deleteCharAt(pos);
+            } else {
+                sb.insert(pos, (char) ('a' + random.nextInt(26)));
+            }
+        }
+        return sb.toString();
+    }
+}
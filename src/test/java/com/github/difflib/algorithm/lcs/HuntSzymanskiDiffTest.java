@@ -0,0 +1,118 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.algorithm.lcs;
+
+import com.github.difflib.algorithm.Change;
+import com.github.difflib.algorithm.DiffAlgorithm;
+import com.github.difflib.algorithm.DiffException;
+import com.github.difflib.algorithm.myers.MyersDiffWithLinearSpace;
+import com.github.difflib.patch.Patch;
+import com.github.difflib.patch.PatchFailedException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HuntSzymanskiDiffTest {
+
+    @Test
+    public void testDiff() throws DiffException, PatchFailedException {
+        List<String> original = Arrays.asList("A", "B", "C", "A", "B", "B", "A");
+        List<String> revised = Arrays.asList("C", "B", "A", "B", "A", "C");
+        assertMinimalAndValid(original, revised, new HuntSzymanskiDiff<String>().diff(original, revised));
+    }
+
+    @Test
+    public void testEmpty() throws DiffException {
+        List<String> empty = Collections.emptyList();
+        assertEquals(0, new HuntSzymanskiDiff<String>().diff(empty, empty).size());
+        assertEquals(1, new HuntSzymanskiDiff<String>().diff(empty, Arrays.asList("a", "b")).size());
+        assertEquals(1, new HuntSzymanskiDiff<String>().diff(Arrays.asList("a", "b"), empty).size());
+        assertEquals(0, new HuntSzymanskiDiff<String>().diff(Arrays.asList("a", "b"), Arrays.asList("a", "b")).size());
+    }
+
+    @Test
+    public void testRewrittenSequences() throws DiffException, PatchFailedException {
+        Random random = new Random(11);
+        for (int run = 0; run < 50; run++) {
+            List<Integer> original = new ArrayList<>();
+            List<Integer> revised = new ArrayList<>();
+            for (int i = random.nextInt(3000); i > 0; i--) {
+                original.add(random.nextInt(1_000_000));
+                // only a few elements survive the rewrite
+                revised.add(random.nextInt(20) == 0 ? original.get(original.size() - 1) : random.nextInt(1_000_000));
+            }
+            assertMinimalAndValid(original, revised, new HuntSzymanskiDiff<Integer>().diff(original, revised));
+        }
+    }
+
+    @Test
+    public void testRandomSequences() throws DiffException, PatchFailedException {
+        Random random = new Random(13);
+        for (int run = 0; run < 300; run++) {
+            List<Integer> original = new ArrayList<>();
+            for (int i = random.nextInt(200); i > 0; i--) {
+                original.add(random.nextInt(1 + random.nextInt(50)));
+            }
+            List<Integer> revised = new ArrayList<>(original);
+            for (int i = random.nextInt(40); i > 0; i--) {
+                int pos = revised.isEmpty() ? 0 : random.nextInt(revised.size());
+                if (random.nextBoolean() && !revised.isEmpty()) {
+                    revised.remove(pos);
+                } else {
+                    revised.add(pos, random.nextInt(50));
+                }
+            }
+            // a large limit forces the match list algorithm even for dense inputs
+            assertMinimalAndValid(original, revised,
+                    new HuntSzymanskiDiff<>(new MyersDiffWithLinearSpace<Integer>(), 1000).diff(original, revised));
+            assertMinimalAndValid(original, revised, new HuntSzymanskiDiff<Integer>().diff(original, revised));
+        }
+    }
+
+    @Test
+    public void testManyMatchingPairsUseFallback() throws DiffException, PatchFailedException {
+        List<String> original = Arrays.asList("x", "x", "x", "a", "x", "x", "x");
+        List<String> revised = Arrays.asList("x", "b", "x", "x", "x", "x", "c");
+        final boolean[] called = new boolean[1];
+        DiffAlgorithm<String> fallback = (o, r) -> {
+            called[0] = true;
+            return new MyersDiffWithLinearSpace<String>().diff(o, r);
+        };
+        assertMinimalAndValid(original, revised, new HuntSzymanskiDiff<>(fallback, 1).diff(original, revised));
+        assertTrue(called[0]);
+    }
+
+    private static <T> void assertMinimalAndValid(List<T> original, List<T> revised, List<Change> changes)
+            throws DiffException, PatchFailedException {
+        assertEquals(editCount(new MyersDiffWithLinearSpace<T>().diff(original, revised)), editCount(changes));
+        assertEquals(revised, Patch.generate(original, revised, changes, 0).applyTo(original));
+    }
+
+    private static int editCount(List<Change> changes) {
+        int count = 0;
+        for (Change change : changes) {
+            count += change.endOriginal - change.startOriginal + change.endRevised - change.startRevised;
+        }
+        return count;
+    }
+}
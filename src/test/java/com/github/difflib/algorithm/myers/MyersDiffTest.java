@@ -15,15 +15,21 @@
  */
 package com.github.difflib.algorithm.myers;
 
+import com.github.difflib.algorithm.Change;
 import com.github.difflib.algorithm.DiffException;
+import com.github.difflib.patch.DeltaType;
 import com.github.difflib.patch.Patch;
+import com.github.difflib.patch.PatchFailedException;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author tw
@@ -40,4 +46,52 @@ public class MyersDiffTest {
         assertEquals("Patch{deltas=[[DeleteDelta, position: 0, lines: [A, B]], [InsertDelta, position: 3, lines: [B]], [DeleteDelta, position: 5, lines: [B]], [InsertDelta, position: 7, lines: [C]]]}", patch.toString());
     }
 
+    @Test
+    public void testDiffMyersLargeSimilarSequences() throws DiffException {
+        List<Integer> original = new ArrayList<>();
+        List<Integer> revised = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            original.add(i);
+            if (i % 1000 != 0) {
+                revised.add(i);
+            }
+        }
+        List<Change> changes = new MyersDiff<Integer>().diff(original, revised);
+        assertEquals(100, changes.size());
+        for (Change change : changes) {
+            assertEquals(DeltaType.DELETE, change.deltaType);
+            assertEquals(1, change.endOriginal - change.startOriginal);
+        }
+    }
+
+    @Test
+    public void testDiffMyersCostLimitCompletelyDifferent() throws DiffException, PatchFailedException {
+        Random random = new Random(3);
+        List<Integer> original = new ArrayList<>();
+        List<Integer> revised = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            original.add(random.nextInt(100));
+            revised.add(random.nextInt(100));
+        }
+        List<Change> changes = new MyersDiff<Integer>(50).diff(original, revised);
+        assertEquals(revised, Patch.generate(original, revised, changes, 0).applyTo(original));
+    }
+
+    @Test
+    public void testDiffMyersCostLimit() throws DiffException, PatchFailedException {
+        Random random = new Random(5);
+        for (int run = 0; run < 200; run++) {
+            List<Integer> original = MyersDiffWithLinearSpaceTest.randomList(random, random.nextInt(60));
+            List<Integer> revised = MyersDiffWithLinearSpaceTest.mutate(random, original);
+
+            List<Change> minimal = new MyersDiff<Integer>().diff(original, revised);
+            List<Change> bounded = new MyersDiff<Integer>(1 + random.nextInt(4)).diff(original, revised);
+            List<Change> unbounded = new MyersDiff<Integer>(1000).diff(original, revised);
+
+            assertEquals(revised, Patch.generate(original, revised, bounded, 0).applyTo(original));
+            assertTrue(MyersDiffWithLinearSpaceTest.editCount(bounded) >= MyersDiffWithLinearSpaceTest.editCount(minimal));
+            assertEquals(Patch.generate(original, revised, minimal, 0).toString(),
+                    Patch.generate(original, revised, unbounded, 0).toString());
+        }
+    }
 }
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.algorithm.myers;
+
+import com.github.difflib.algorithm.Change;
+import com.github.difflib.algorithm.DiffException;
+import com.github.difflib.patch.Patch;
+import com.github.difflib.patch.PatchFailedException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class MyersDiffWithLinearSpaceTest {
+
+    @Test
+    public void testDiffMyersExample1Forward() throws DiffException, PatchFailedException {
+        List<String> original = Arrays.asList("A", "B", "C", "A", "B", "B", "A");
+        List<String> revised = Arrays.asList("C", "B", "A", "B", "A", "C");
+        final Patch<String> patch = Patch.generate(original, revised, new MyersDiffWithLinearSpace<String>().diff(original, revised), 1);
+        assertNotNull(patch);
+        assertEquals(revised, patch.applyTo(original));
+        assertEquals(5, editCount(new MyersDiffWithLinearSpace<String>().diff(original, revised)));
+    }
+
+    @Test
+    public void testDiffEmptySequences() throws DiffException {
+        List<String> empty = new ArrayList<>();
+        List<String> list = Arrays.asList("A", "B");
+        assertEquals(0, new MyersDiffWithLinearSpace<String>().diff(empty, empty).size());
+        assertEquals(1, new MyersDiffWithLinearSpace<String>().diff(empty, list).size());
+        assertEquals(1, new MyersDiffWithLinearSpace<String>().diff(list, empty).size());
+    }
+
+    @Test
+    public void testSameEditCountAsMyersDiff() throws DiffException, PatchFailedException {
+        Random random = new Random(42);
+        for (int run = 0; run < 200; run++) {
+            List<Integer> original = randomList(random, random.nextInt(60));
+            List<Integer> revised = mutate(random, original);
+
+            List<Change> expected = new MyersDiff<Integer>().diff(original, revised);
+            List<Change> actual = new MyersDiffWithLinearSpace<Integer>().diff(original, revised);
+
+            assertEquals(editCount(expected), editCount(actual));
+            assertEquals(revised, Patch.generate(original, revised, actual, 0).applyTo(original));
+        }
+    }
+
+    static int editCount(List<Change> changes) {
+        int count = 0;
+        for (Change change : changes) {
+            count += change.endOriginal - change.startOriginal + change.endRevised - change.startRevised;
+        }
+        return count;
+    }
+
+    static List<Integer> randomList(Random random, int size) {
+        List<Integer> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(random.nextInt(5));
+        }
+        return list;
+    }
+
+    static List<Integer> mutate(Random random, List<Integer> original) {
+        List<Integer> revised = new ArrayList<>(original);
+        int edits = random.nextInt(10);
+        for (int i = 0; i < edits; i++) {
+            int pos = revised.isEmpty() ? 0 : random.nextInt(revised.size());
+            if (random.nextBoolean() && !revised.isEmpty()) {
+                revised.remove(pos);
+            } else {
+                revised.add(pos, random.nextInt(5));
+            }
+        }
+        return revised;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.algorithm.myers;
+
+import com.github.difflib.algorithm.Change;
+import com.github.difflib.algorithm.DiffException;
+import com.github.difflib.patch.Patch;
+import com.github.difflib.patch.PatchFailedException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.github.difflib.algorithm.myers.MyersDiffWithLinearSpaceTest.mutate;
+import static com.github.difflib.algorithm.myers.MyersDiffWithLinearSpaceTest.randomList;
+import static org.junit.Assert.assertEquals;
+
+public class ParallelMyersDiffTest {
+
+    @Test
+    public void testDiffMyersExample1Forward() throws DiffException, PatchFailedException {
+        List<String> original = Arrays.asList("A", "B", "C", "A", "B", "B", "A");
+        List<String> revised = Arrays.asList("C", "B", "A", "B", "A", "C");
+        List<Change> changes = new ParallelMyersDiff<String>().diff(original, revised);
+        assertEquals(toString(new MyersDiffWithLinearSpace<String>().diff(original, revised)), toString(changes));
+        assertEquals(revised, Patch.generate(original, revised, changes, 0).applyTo(original));
+    }
+
+    @Test
+    public void testSameResultAsSequential() throws DiffException {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Random random = new Random(7);
+            for (int run = 0; run < 200; run++) {
+                List<Integer> original = randomList(random, random.nextInt(200));
+                List<Integer> revised = mutate(random, mutate(random, original));
+
+                List<Change> expected = new MyersDiffWithLinearSpace<Integer>().diff(original, revised);
+                List<Change> actual = new ParallelMyersDiff<Integer>(Object::equals, pool, 4).diff(original, revised);
+                assertEquals(toString(expected), toString(actual));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testLargeInput() throws DiffException, PatchFailedException {
+        Random random = new Random(11);
+        List<Integer> original = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            original.add(random.nextInt(1000));
+        }
+        List<Integer> revised = new ArrayList<>(original);
+        for (int i = 0; i < 500; i++) {
+            revised.set(random.nextInt(revised.size()), random.nextInt(1000));
+        }
+
+        List<Change> actual = new ParallelMyersDiff<Integer>().diff(original, revised);
+        assertEquals(toString(new MyersDiffWithLinearSpace<Integer>().diff(original, revised)), toString(actual));
+        assertEquals(revised, Patch.generate(original, revised, actual, 0).applyTo(original));
+    }
+
+    private static String toString(List<Change> changes) {
+        StringBuilder sb = new StringBuilder();
+        for (Change change : changes) {
+            sb.append(change.deltaType).append(' ').append(change.startOriginal).append('-').append(change.endOriginal)
+                    .append(' ').append(change.startRevised).append('-').append(change.endRevised).append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.algorithm.patience;
+
+import com.github.difflib.algorithm.Change;
+import com.github.difflib.algorithm.DiffAlgorithm;
+import com.github.difflib.algorithm.DiffException;
+import com.github.difflib.algorithm.myers.MyersDiff;
+import com.github.difflib.patch.Patch;
+import com.github.difflib.patch.PatchFailedException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AnchoredDiffTest {
+
+    @Test
+    public void testDelegateSeesRegionsBetweenAnchorsOnly() throws DiffException, PatchFailedException {
+        List<String> original = Arrays.asList("x", "x", "a", "y", "y", "b", "z", "z");
+        List<String> revised = Arrays.asList("x", "a", "y", "y", "y", "b", "z");
+        final List<Integer> sizes = new ArrayList<>();
+        DiffAlgorithm<String> delegate = (o, r) -> {
+            sizes.add(o.size() + r.size());
+            return new MyersDiff<String>().diff(o, r);
+        };
+        final Patch<String> patch = Patch.generate(original, revised, new AnchoredDiff<>(delegate).diff(original, revised), 0);
+        assertEquals(revised, patch.applyTo(original));
+        assertEquals(Arrays.asList(3, 5, 3), sizes);
+    }
+
+    @Test
+    public void testDiffWithoutUniqueLinesUsesDelegate() throws DiffException, PatchFailedException {
+        List<String> original = Arrays.asList("A", "B", "C", "A", "B", "B", "A");
+        List<String> revised = Arrays.asList("C", "B", "A", "B", "A", "C");
+        final Patch<String> patch = Patch.generate(original, revised, new AnchoredDiff<>(new MyersDiff<String>()).diff(original, revised), 0);
+        assertEquals(revised, patch.applyTo(original));
+    }
+
+    @Test
+    public void testParallelDiffEqualsSequentialDiff() throws DiffException, PatchFailedException {
+        Random random = new Random(5);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int run = 0; run < 100; run++) {
+                List<Integer> original = new ArrayList<>();
+                for (int i = random.nextInt(2000); i > 0; i--) {
+                    original.add(random.nextInt(random.nextBoolean() ? 20 : 100_000));
+                }
+                List<Integer> revised = new ArrayList<>(original);
+                for (int i = random.nextInt(50); i > 0; i--) {
+                    int pos = revised.isEmpty() ? 0 : random.nextInt(revised.size());
+                    if (random.nextBoolean() && !revised.isEmpty()) {
+                        revised.remove(pos);
+                    } else {
+                        revised.add(pos, random.nextInt(20));
+                    }
+                }
+                final List<Change> sequential = new AnchoredDiff<>(new MyersDiff<Integer>()).diff(original, revised);
+                final List<Change> parallel = new AnchoredDiff<>(new MyersDiff<Integer>(), pool, 16).diff(original, revised);
+                assertEquals(toString(sequential), toString(parallel));
+                assertEquals(revised, Patch.generate(original, revised, parallel, 0).applyTo(original));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test(expected = DiffException.class)
+    public void testParallelDiffPassesDelegateException() throws DiffException {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            List<String> original = Arrays.asList("a", "x", "b", "x", "c");
+            List<String> revised = Arrays.asList("a", "y", "b", "y", "c");
+            DiffAlgorithm<String> delegate = (o, r) -> {
+                throw new DiffException("failed");
+            };
+            new AnchoredDiff<>(delegate, pool, 1).diff(original, revised);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testChangesAreSorted() throws DiffException {
+        List<String> original = Arrays.asList("1", "a", "2", "b", "3");
+        List<String> revised = Arrays.asList("0", "a", "9", "b", "8");
+        final List<Change> changes = new AnchoredDiff<>(new MyersDiff<String>()).diff(original, revised);
+        assertEquals(3, changes.size());
+        for (int i = 1; i < changes.size(); i++) {
+            assertTrue(changes.get(i - 1).endOriginal < changes.get(i).startOriginal);
+        }
+    }
+
+    private static String toString(List<Change> changes) {
+        StringBuilder sb = new StringBuilder();
+        for (Change change : changes) {
+            sb.append(change.deltaType).append(' ').append(change.startOriginal).append('-').append(change.endOriginal)
+                    .append(' ').append(change.startRevised).append('-').append(change.endRevised).append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.algorithm.patience;
+
+import com.github.difflib.algorithm.DiffException;
+import com.github.difflib.patch.Patch;
+import com.github.difflib.patch.PatchFailedException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class PatienceDiffTest {
+
+    @Test
+    public void testDiffAnchorsOnUniqueLines() throws DiffException, PatchFailedException {
+        List<String> original = Arrays.asList(
+                "void a() {", "    foo();", "}", "",
+                "void b() {", "    bar();", "}");
+        List<String> revised = Arrays.asList(
+                "void b() {", "    bar();", "}", "",
+                "void a() {", "    foo();", "}");
+        final Patch<String> patch = Patch.generate(original, revised, new PatienceDiff<String>().diff(original, revised), 0);
+        assertEquals(revised, patch.applyTo(original));
+        assertEquals(2, patch.getDeltas().size());
+        assertEquals("[DeleteDelta, position: 0, lines: [void a() {,     foo();, }, ]]", patch.getDeltas().get(0).toString());
+        assertEquals("[InsertDelta, position: 6, lines: [}, , void a() {,     foo();]]", patch.getDeltas().get(1).toString());
+    }
+
+    @Test
+    public void testDiffWithoutUniqueLinesUsesFallback() throws DiffException, PatchFailedException {
+        List<String> original = Arrays.asList("A", "B", "C", "A", "B", "B", "A");
+        List<String> revised = Arrays.asList("C", "B", "A", "B", "A", "C");
+        final Patch<String> patch = Patch.generate(original, revised, new PatienceDiff<String>().diff(original, revised), 0);
+        assertEquals(revised, patch.applyTo(original));
+    }
+
+    @Test
+    public void testDiffRandomSequences() throws DiffException, PatchFailedException {
+        Random random = new Random(3);
+        for (int run = 0; run < 200; run++) {
+            List<Integer> original = new ArrayList<>();
+            for (int i = random.nextInt(100); i > 0; i--) {
+                original.add(random.nextInt(40));
+            }
+            List<Integer> revised = new ArrayList<>(original);
+            for (int i = random.nextInt(10); i > 0; i--) {
+                int pos = revised.isEmpty() ? 0 : random.nextInt(revised.size());
+                if (random.nextBoolean() && !revised.isEmpty()) {
+                    revised.remove(pos);
+                } else {
+                    revised.add(pos, random.nextInt(40));
+                }
+            }
+            final Patch<Integer> patch = Patch.generate(original, revised, new PatienceDiff<Integer>().diff(original, revised), 0);
+            assertEquals(revised, patch.applyTo(original));
+        }
+    }
+}
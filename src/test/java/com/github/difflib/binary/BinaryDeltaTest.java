@@ -0,0 +1,102 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.binary;
+
+import com.github.difflib.patch.PatchFailedException;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class BinaryDeltaTest {
+
+    @Test
+    public void testEncoding() throws PatchFailedException {
+        final BinaryDelta.Writer writer = new BinaryDelta.Writer(10, 7);
+        writer.copy(4, 4);
+        writer.insert(new byte[]{42}, 0, 1);
+        writer.copy(1, 2);
+        final BinaryDelta delta = writer.build();
+        // lengths, copy 4 at distance 4, insert 1 literal, copy 2 at distance -7
+        assertArrayEquals(new byte[]{10, 7, 9, 8, 2, 42, 5, 13}, delta.toByteArray());
+        assertEquals(10, delta.getBaseLength());
+        assertEquals(7, delta.getTargetLength());
+        assertArrayEquals(new byte[]{4, 5, 6, 7, 42, 1, 2},
+                BinaryDelta.of(delta.toByteArray()).apply(new byte[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9}));
+    }
+
+    @Test
+    public void testApplyToBufferKeepsPosition() throws PatchFailedException {
+        final byte[] base = BinaryDiffTest.randomBytes(new Random(5), 1000);
+        final byte[] target = BinaryDiffTest.mutate(new Random(6), base, 5);
+        final BinaryDelta delta = new BinaryDiff().diff(base, target);
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(1010);
+        buffer.position(10);
+        buffer.put(base);
+        buffer.position(10);
+        assertArrayEquals(target, delta.apply(buffer).array());
+        assertEquals(10, buffer.position());
+    }
+
+    @Test(expected = PatchFailedException.class)
+    public void testApplyToWrongBase() throws PatchFailedException {
+        new BinaryDiff().diff(new byte[100], new byte[50]).apply(new byte[99]);
+    }
+
+    @Test(expected = PatchFailedException.class)
+    public void testApplyTruncatedDelta() throws PatchFailedException {
+        final byte[] base = BinaryDiffTest.randomBytes(new Random(7), 1000);
+        final byte[] target = BinaryDiffTest.mutate(new Random(8), base, 5);
+        final byte[] encoded = new BinaryDiff().diff(base, target).toByteArray();
+        BinaryDelta.of(Arrays.copyOf(encoded, encoded.length - 3)).apply(base);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMalformedHeader() {
+        BinaryDelta.of(new byte[]{(byte) 0x80});
+    }
+
+    @Test
+    public void testCorruptHeaderLengths() {
+        final byte[] ff = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+            (byte) 0xFF, (byte) 0xFF};
+        final byte[] zeros = {(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80,
+            (byte) 0x80, (byte) 0x80, (byte) 0x80};
+        // -1, 2^63 and 2^64, each followed by a valid target length
+        for (byte[] header : Arrays.asList(concat(ff, 0x01, 0x00), concat(zeros, 0x01, 0x00),
+                concat(zeros, 0x02, 0x00), new byte[]{0x00, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x08})) {
+            try {
+                BinaryDelta.of(header);
+                fail("header must be rejected: " + Arrays.toString(header));
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    private static byte[] concat(byte[] head, int... tail) {
+        final byte[] result = Arrays.copyOf(head, head.length + tail.length);
+        for (int i = 0; i < tail.length; i++) {
+            result[head.length + i] = (byte) tail[i];
+        }
+        return result;
+    }
+}
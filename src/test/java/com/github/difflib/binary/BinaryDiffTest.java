@@ -0,0 +1,126 @@
+/*
+ * Copyright 2017 java-diff-utils.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.difflib.binary;
+
+import com.github.difflib.patch.PatchFailedException;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BinaryDiffTest {
+
+    @Test
+    public void testIdenticalInputIsOneCopy() throws PatchFailedException {
+        final byte[] base = randomBytes(new Random(1), 100_000);
+        final BinaryDelta delta = new BinaryDiff().diff(base, base);
+        assertTrue(delta.size() < 16);
+        assertArrayEquals(base, delta.apply(base));
+    }
+
+    @Test
+    public void testEmptyInputs() throws PatchFailedException {
+        final byte[] bytes = {1, 2, 3};
+        assertArrayEquals(bytes, new BinaryDiff().diff(new byte[0], bytes).apply(new byte[0]));
+        assertArrayEquals(new byte[0], new BinaryDiff().diff(bytes, new byte[0]).apply(bytes));
+    }
+
+    @Test
+    public void testSmallEditsGiveSmallDelta() throws PatchFailedException {
+        Random random = new Random(2);
+        final byte[] base = randomBytes(random, 1_000_000);
+        final byte[] target = mutate(random, base, 100);
+        final BinaryDelta delta = new BinaryDiff().diff(base, target);
+        assertArrayEquals(target, delta.apply(base));
+        assertTrue("delta size " + delta.size(), delta.size() < 100 * 64);
+    }
+
+    @Test
+    public void testMovedBlocksAreCopied() throws PatchFailedException {
+        final byte[] base = randomBytes(new Random(3), 30_000);
+        final byte[] target = new byte[base.length];
+        System.arraycopy(base, 20_000, target, 0, 10_000);
+        System.arraycopy(base, 0, target, 10_000, 20_000);
+        final BinaryDelta delta = new BinaryDiff().diff(base, target);
+        assertArrayEquals(target, delta.apply(base));
+        assertTrue(delta.size() < 32);
+    }
+
+    @Test
+    public void testRandomEdits() throws PatchFailedException {
+        Random random = new Random(4);
+        for (int run = 0; run < 200; run++) {
+            final byte[] base = random.nextBoolean() ? randomBytes(random, random.nextInt(5000))
+                    : repetitiveBytes(random, random.nextInt(5000));
+            final byte[] target = mutate(random, base, random.nextInt(20));
+            final BinaryDiff diff = new BinaryDiff(4 + random.nextInt(30));
+            assertArrayEquals(target, diff.diff(base, target).apply(base));
+            assertArrayEquals(target, diff.diff(ByteBuffer.wrap(base), ByteBuffer.wrap(target))
+                    .apply(ByteBuffer.wrap(base)).array());
+        }
+    }
+
+    static byte[] randomBytes(Random random, int length) {
+        final byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] repetitiveBytes(Random random, int length) {
+        final byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) random.nextInt(3);
+        }
+        return bytes;
+    }
+
+    /**
+     * Inserts, deletes or overwrites short runs of bytes.
+     */
+    static byte[] mutate(Random random, byte[] bytes, int edits) {
+        byte[] result = bytes;
+        for (int e = 0; e < edits; e++) {
+            final int pos = random.nextInt(result.length + 1);
+            final int length = 1 + random.nextInt(20);
+            final byte[] changed;
+            switch (random.nextInt(3)) {
+                case 0:
+                    changed = new byte[result.length + length];
+                    System.arraycopy(result, 0, changed, 0, pos);
+                    System.arraycopy(randomBytes(random, length), 0, changed, pos, length);
+                    System.arraycopy(result, pos, changed, pos + length, result.length - pos);
+                    break;
+                case 1:
+                    final int removed = Math.min(length, result.length - pos);
+                    changed = new byte[result.length - removed];
+                    System.arraycopy(result, 0, changed, 0, pos);
+                    System.arraycopy(result, pos + removed, changed, pos, result.length - pos - removed);
+                    break;
+                default:
+                    changed = result.clone();
+                    for (int i = pos; i < Math.min(pos + length, changed.length); i++) {
+                        changed[i] = (byte) random.nextInt();
+                    }
+                    break;
+            }
+            result = changed;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,150 @@
+package com.github.difflib.merge;
+
+import com.github.difflib.DiffUtils;
+import com.github.difflib.algorithm.DiffException;
+import com.github.difflib.algorithm.myers.MyersDiff;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ThreeWayMergeTest {
+
+    @Test
+    public void testNonOverlappingChangesAreMerged() throws DiffException {
+        List<String> base = asList("a", "b", "c", "d", "e", "f");
+        List<String> ours = asList("a", "B", "c", "d", "e", "f");
+        List<String> theirs = asList("a", "b", "c", "d", "E", "f", "g");
+
+        MergeResult<String> result = DiffUtils.merge(base, ours, theirs);
+        assertFalse(result.hasConflicts());
+        assertEquals(asList("a", "B", "c", "d", "E", "f", "g"), result.getMerged());
+    }
+
+    @Test
+    public void testIdenticalChangesAreTakenOnce() throws DiffException {
+        List<String> base = asList("a", "b", "c");
+        List<String> ours = asList("a", "x", "c");
+        List<String> theirs = asList("a", "x", "c");
+
+        MergeResult<String> result = new ThreeWayMerge<String>().merge(base, ours, theirs);
+        assertFalse(result.hasConflicts());
+        assertEquals(ours, result.getMerged());
+    }
+
+    @Test
+    public void testConflict() throws DiffException {
+        List<String> base = asList("a", "b", "c", "d");
+        List<String> ours = asList("a", "x", "c", "d");
+        List<String> theirs = asList("a", "y", "z", "c", "d", "e");
+
+        MergeResult<String> result = new ThreeWayMerge<String>().merge(base, ours, theirs);
+        assertEquals(1, result.getConflicts().size());
+        MergeConflict<String> conflict = result.getConflicts().get(0);
+        assertEquals(1, conflict.getPosition());
+        assertEquals(asList("b"), conflict.getBase().getLines());
+        assertEquals(asList("x"), conflict.getOurs().getLines());
+        assertEquals(asList("y", "z"), conflict.getTheirs().getLines());
+        assertEquals(1, conflict.getTheirs().getPosition());
+        assertEquals(asList("a", "x", "c", "d", "e"), result.getMerged());
+
+        List<String> resolved = result.resolve(c -> {
+            List<String> lines = new ArrayList<>();
+            lines.add("<<<<<<<");
+            lines.addAll(c.getOurs().getLines());
+            lines.add("=======");
+            lines.addAll(c.getTheirs().getLines());
+            lines.add(">>>>>>>");
+            return lines;
+        });
+        assertEquals(asList("a", "<<<<<<<", "x", "=======", "y", "z", ">>>>>>>", "c", "d", "e"), resolved);
+    }
+
+    @Test
+    public void testAdjacentChangesConflict() throws DiffException {
+        List<String> base = asList("a", "b", "c", "d");
+        List<String> ours = asList("a", "X", "c", "d");
+        List<String> theirs = asList("a", "b", "Y", "d");
+
+        MergeResult<String> result = new ThreeWayMerge<String>().merge(base, ours, theirs);
+        assertEquals(1, result.getConflicts().size());
+        assertEquals(asList("X", "c"), result.getConflicts().get(0).getOurs().getLines());
+        assertEquals(asList("b", "Y"), result.getConflicts().get(0).getTheirs().getLines());
+    }
+
+    @Test
+    public void testInsertsAtSamePositionConflict() throws DiffException {
+        List<String> base = asList("a", "b");
+        List<String> ours = asList("a", "x", "b");
+        List<String> theirs = asList("a", "y", "b");
+
+        MergeResult<String> result = new ThreeWayMerge<String>().merge(base, ours, theirs);
+        assertEquals(1, result.getConflicts().size());
+        assertTrue(result.getConflicts().get(0).getBase().getLines().isEmpty());
+    }
+
+    @Test
+    public void testParallelMatchesSequential() throws DiffException {
+        Random random = new Random(7);
+        List<Integer> base = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            base.add(random.nextInt(1000));
+        }
+        List<Integer> ours = edit(base, random);
+        List<Integer> theirs = edit(base, random);
+
+        MergeResult<Integer> sequential = new ThreeWayMerge<>(new MyersDiff<Integer>()).merge(base, ours, theirs);
+        MergeResult<Integer> parallel = new ThreeWayMerge<>(new MyersDiff<Integer>(), ForkJoinPool.commonPool(), 0)
+                .merge(base, ours, theirs);
+        assertEquals(sequential.getMerged(), parallel.getMerged());
+        assertEquals(sequential.getConflicts().size(), parallel.getConflicts().size());
+    }
+
+    @Test
+    public void testOneSideUnchanged() throws DiffException {
+        Random random = new Random(3);
+        for (int round = 0; round < 50; round++) {
+            List<Integer> base = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                base.add(random.nextInt(20));
+            }
+            List<Integer> theirs = edit(base, random);
+            assertEquals(theirs, new ThreeWayMerge<Integer>().merge(base, base, theirs).getMerged());
+            assertEquals(theirs, new ThreeWayMerge<Integer>().merge(base, theirs, base).getMerged());
+        }
+    }
+
+    private static List<Integer> edit(List<Integer> base, Random random) {
+        List<Integer> result = new ArrayList<>(base);
+        for (int i = 0; i < base.size() / 50 + 1; i++) {
+            int position = random.nextInt(result.size());
+            switch (random.nextInt(3)) {
+                case 0:
+                    result.remove(position);
+                    break;
+                case 1:
+                    result.add(position, -random.nextInt(100) - 1);
+                    break;
+                default:
+                    result.set(position, -random.nextInt(100) - 1);
+                    break;
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void testEmptyInputs() throws DiffException {
+        MergeResult<String> result = new ThreeWayMerge<String>().merge(Arrays.<String>asList(), asList("a"),
+                Arrays.<String>asList());
+        assertEquals(asList("a"), result.getMerged());
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.difflib.patch;
+
+import com.github.difflib.DiffUtils;
+import com.github.difflib.algorithm.DiffException;
+import com.github.difflib.algorithm.myers.MyersDiff;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MoveDeltaTest {
+
+    private static List<String> lines(String prefix, int count) {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            lines.add(prefix + i);
+        }
+        return lines;
+    }
+
+    @Test
+    public void testMovedBlockIsReportedAsMove() throws DiffException, PatchFailedException {
+        List<String> function = lines("f", 10);
+        List<String> original = new ArrayList<>(lines("a", 5));
+        original.addAll(function);
+        original.addAll(lines("b", 20));
+        List<String> revised = new ArrayList<>(lines("a", 5));
+        revised.addAll(lines("b", 20));
+        revised.addAll(function);
+
+        Patch<String> patch = DiffUtils.diffWithMoves(original, revised, new MyersDiff<>(), 0, 3);
+        List<Delta<String>> deltas = patch.getDeltas();
+        assertEquals(2, deltas.size());
+        assertEquals(DeltaType.DELETE, deltas.get(0).getType());
+        assertEquals(DeltaType.MOVE, deltas.get(1).getType());
+
+        MoveDelta<String> move = (MoveDelta<String>) deltas.get(1);
+        assertEquals(5, move.getSource().getPosition());
+        assertEquals(function, move.getRevised().getLines());
+        assertEquals(25, move.getRevised().getPosition());
+
+        assertEquals(revised, DiffUtils.patch(original, patch));
+        assertEquals(original, DiffUtils.unpatch(revised, patch));
+    }
+
+    @Test
+    public void testMoveReferencesSourceLines() throws DiffException {
+        List<String> original = new ArrayList<>(lines("f", 4));
+        original.addAll(lines("b", 10));
+        List<String> revised = new ArrayList<>(lines("b", 10));
+        revised.addAll(lines("f", 4));
+
+        Patch<String> patch = DiffUtils.diffWithMoves(original, revised, new MyersDiff<>(), 0, 4);
+        Delta<String> delete = patch.getDeltas().get(0);
+        MoveDelta<String> move = (MoveDelta<String>) patch.getDeltas().get(1);
+        assertSame(move.getSource().getLines(), move.getRevised().getLines());
+        // the source is a view of the lines kept by the deleting delta
+        delete.getOriginal().getLines().set(0, "x");
+        assertEquals("x", move.getRevised().getLines().get(0));
+    }
+
+    @Test
+    public void testBlocksShorterThanMinimumAreNotMoves() throws DiffException {
+        List<String> original = Arrays.asList("f0", "f1", "a", "b", "c", "d");
+        List<String> revised = Arrays.asList("a", "b", "c", "d", "f0", "f1");
+
+        Patch<String> patch = DiffUtils.diffWithMoves(original, revised, new MyersDiff<>(), 0, 3);
+        for (Delta<String> delta : patch.getDeltas()) {
+            assertTrue(delta.getType() != DeltaType.MOVE);
+        }
+    }
+
+    @Test
+    public void testMoveWithinChangeAndSurroundingInserts() throws DiffException, PatchFailedException {
+        List<String> original = new ArrayList<>(lines("m", 6));
+        original.addAll(lines("k", 10));
+        original.add("old");
+        List<String> revised = new ArrayList<>(lines("k", 10));
+        revised.add("new");
+        revised.addAll(lines("x", 2));
+        revised.addAll(lines("m", 6));
+        revised.add("y");
+
+        Patch<String> patch = DiffUtils.diffWithMoves(original, revised, new MyersDiff<>(), 2, 3);
+        assertTrue(patch.getDeltas().stream().anyMatch(d -> d instanceof MoveDelta));
+        assertEquals(revised, DiffUtils.patch(original, patch));
+        assertEquals(original, DiffUtils.unpatch(revised, patch));
+    }
+
+    @Test
+    public void testRandomEditsRoundTrip() throws DiffException, PatchFailedException {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            List<String> original = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                original.add("l" + random.nextInt(40));
+            }
+            List<String> revised = new ArrayList<>(original);
+            int from = random.nextInt(50);
+            List<String> block = new ArrayList<>(revised.subList(from, from + 8));
+            revised.subList(from, from + 8).clear();
+            revised.addAll(random.nextInt(revised.size() + 1), block);
+            for (int i = 0; i < 5; i++) {
+                revised.set(random.nextInt(revised.size()), "r" + random.nextInt(10));
+            }
+
+            Patch<String> patch = DiffUtils.diffWithMoves(original, revised, new MyersDiff<>(), 1, 3);
+            assertEquals(revised, DiffUtils.patch(original, patch));
+            assertEquals(original, DiffUtils.unpatch(revised, patch));
+        }
+    }
+}
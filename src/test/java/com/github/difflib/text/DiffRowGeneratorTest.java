@@ -132,6 +132,28 @@ public class DiffRowGeneratorTest {
         assertEquals("[CHANGE,<span class=\"editOldInline\">T</span>est<span class=\"editNewInline\">er</span>,ester]", rows.get(0).toString());
     }
 
+    @Test(timeout = 10_000)
+    public void testInlineDiffOfLongLine() throws DiffException {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            line.append((char) ('a' + i % 26));
+        }
+        String first = line.toString();
+        String second = "X" + first.substring(1, 50_000) + first.substring(50_001) + "Y";
+
+        DiffRowGenerator generator = DiffRowGenerator.create()
+                .showInlineDiffs(true)
+                .oldTag(f -> f ? "[" : "]")
+                .newTag(f -> f ? "<" : ">")
+                .build();
+        List<DiffRow> rows = generator.generateDiffRows(Arrays.asList(first), Arrays.asList(second));
+
+        assertEquals(1, rows.size());
+        assertEquals("[a]" + first.substring(1, 50_000) + "[" + first.charAt(50_000) + "]" + first.substring(50_001),
+                rows.get(0).getOldLine());
+        assertEquals("<X>" + second.substring(1, second.length() - 1) + "<Y>", rows.get(0).getNewLine());
+    }
+
     @Test
     public void testGeneratorWithMerge3() throws DiffException {
         String first = "test\nanything \n \nother";